@@ -1,5 +1,6 @@
 package com.example.demo.config;
 
+import com.example.demo.dto.authdto.TokenClaims;
 import com.example.demo.service.JWTService;
 import com.example.demo.service.MyUserDetailService;
 import jakarta.servlet.FilterChain;
@@ -29,18 +30,13 @@ public class JwtFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        String jwtToken = null;
-        String email = null;
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwtToken = authHeader.substring(7);
-            email = jwtService.extractEmail(jwtToken);
-        }
-
-        if (jwtToken != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailService.loadUserByUsername(email);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            TokenClaims claims = jwtService.verify(authHeader.substring(7));
 
-            if (jwtService.validateToken(jwtToken, userDetails)) {
+            if (claims != null && claims.getEmail() != null) {
+                UserDetails userDetails = userDetailService.loadUserByUsername(claims.getEmail());
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
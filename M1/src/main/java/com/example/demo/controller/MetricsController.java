@@ -0,0 +1,77 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.metricsdto.CacheStatsDTO;
+import com.example.demo.dto.metricsdto.HttpPoolStatsDTO;
+import com.example.demo.dto.metricsdto.PasswordHashingStatsDTO;
+import com.example.demo.service.JWTService;
+import com.example.demo.service.MyUserDetailService;
+import com.example.demo.service.PasswordHashingService;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/metrics")
+public class MetricsController {
+
+    private final PoolingHttpClientConnectionManager httpConnectionManager;
+    private final PoolingAsyncClientConnectionManager asyncHttpConnectionManager;
+    private final JWTService jwtService;
+    private final MyUserDetailService userDetailService;
+    private final PasswordHashingService passwordHashingService;
+
+    public MetricsController(PoolingHttpClientConnectionManager httpConnectionManager,
+                             PoolingAsyncClientConnectionManager asyncHttpConnectionManager,
+                             JWTService jwtService,
+                             MyUserDetailService userDetailService,
+                             PasswordHashingService passwordHashingService) {
+        this.httpConnectionManager = httpConnectionManager;
+        this.asyncHttpConnectionManager = asyncHttpConnectionManager;
+        this.jwtService = jwtService;
+        this.userDetailService = userDetailService;
+        this.passwordHashingService = passwordHashingService;
+    }
+
+    @GetMapping("/http-pool")
+    public ResponseEntity<List<HttpPoolStatsDTO>> getHttpPoolStats() {
+        List<HttpPoolStatsDTO> stats = new ArrayList<>();
+        stats.add(toDTO("total", httpConnectionManager.getTotalStats()));
+        for (HttpRoute route : httpConnectionManager.getRoutes()) {
+            stats.add(toDTO(route.getTargetHost().toURI(), httpConnectionManager.getStats(route)));
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/http-pool/async")
+    public ResponseEntity<List<HttpPoolStatsDTO>> getAsyncHttpPoolStats() {
+        List<HttpPoolStatsDTO> stats = new ArrayList<>();
+        stats.add(toDTO("total", asyncHttpConnectionManager.getTotalStats()));
+        for (HttpRoute route : asyncHttpConnectionManager.getRoutes()) {
+            stats.add(toDTO(route.getTargetHost().toURI(), asyncHttpConnectionManager.getStats(route)));
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(List.of(jwtService.getClaimsCacheStats(), userDetailService.getCacheStats()));
+    }
+
+    @GetMapping("/password-hashing")
+    public ResponseEntity<PasswordHashingStatsDTO> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordHashingService.getStats());
+    }
+
+    private HttpPoolStatsDTO toDTO(String route, PoolStats poolStats) {
+        return new HttpPoolStatsDTO(route, poolStats.getLeased(), poolStats.getPending(),
+                poolStats.getAvailable(), poolStats.getMax());
+    }
+}
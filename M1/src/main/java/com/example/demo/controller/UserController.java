@@ -5,6 +5,7 @@ import com.example.demo.dto.authdto.AuthResponse;
 import com.example.demo.dto.userdto.UserDTO;
 import com.example.demo.entity.Role;
 import com.example.demo.entity.User;
+import com.example.demo.errorhandler.ServiceBusyException;
 import com.example.demo.errorhandler.UserException;
 import com.example.demo.repository.RoleRepository;
 import com.example.demo.service.JWTService;
@@ -12,7 +13,6 @@ import com.example.demo.service.UserService;
 import com.example.demo.validator.UserFieldValidator;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
-import jakarta.transaction.Transactional;
 import lombok.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,9 +43,8 @@ public class UserController {
         this.roleRepository = roleRepository;
     }
 
-    @Transactional
     @PostMapping("/register")
-    public ResponseEntity<String> register(@RequestBody UserDTO userDTO) throws UserException {
+    public ResponseEntity<String> register(@RequestBody UserDTO userDTO) throws UserException, ServiceBusyException {
         List<String> errors = UserFieldValidator.validateInsertOrUpdate(userDTO);
         if (!errors.isEmpty()) {
             throw new UserException(String.join("; ", errors));
@@ -87,7 +86,7 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody User user) throws UserException {
+    public ResponseEntity<AuthResponse> login(@RequestBody User user) throws UserException, ServiceBusyException {
         AuthResponse response = userService.login(user);
         return ResponseEntity.ok(response);
     }
@@ -123,12 +122,12 @@ public class UserController {
     }
 
     @PostMapping(value = "/create", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> processAddUserForm(@RequestBody UserDTO userDTO) throws UserException {
+    public ResponseEntity<?> processAddUserForm(@RequestBody UserDTO userDTO) throws UserException, ServiceBusyException {
         return new ResponseEntity<>(userService.createUser(userDTO), HttpStatus.CREATED);
     }
 
     @PutMapping(value = "/update", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> processUpdateUserForm(@RequestBody UserDTO userDTO) throws UserException {
+    public ResponseEntity<?> processUpdateUserForm(@RequestBody UserDTO userDTO) throws UserException, ServiceBusyException {
         return new ResponseEntity<>(userService.updateUser(userDTO), HttpStatus.OK);
     }
 
@@ -0,0 +1,119 @@
+package com.example.demo.controller.forwardingControllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Forwards requests through the non-blocking HTTP client. The downstream response is relayed
+ * as raw bytes, so the Tomcat worker is released as soon as the request has been handed off.
+ * Which routes use this path is controlled by {@code m1.forwarding.async-routes}.
+ */
+@Component
+public class AsyncForwardingClient {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncForwardingClient.class);
+
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "content-length", "upgrade");
+
+    private final CloseableHttpAsyncClient asyncHttpClient;
+    private final ObjectMapper objectMapper;
+    private final Set<String> asyncRoutes;
+
+    public AsyncForwardingClient(CloseableHttpAsyncClient asyncHttpClient,
+                                 ObjectMapper objectMapper,
+                                 @Value("${m1.forwarding.async-routes:}") String[] asyncRoutes) {
+        this.asyncHttpClient = asyncHttpClient;
+        this.objectMapper = objectMapper;
+        this.asyncRoutes = Arrays.stream(asyncRoutes)
+                .map(String::trim)
+                .filter(route -> !route.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public boolean isAsyncRoute(String route) {
+        return asyncRoutes.contains(route);
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> get(URI uri, String authHeader) {
+        SimpleRequestBuilder builder = SimpleRequestBuilder.get(uri);
+        addCommonHeaders(builder, authHeader);
+        return execute(builder.build());
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> post(String url, Object body, String authHeader) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+        }
+        SimpleRequestBuilder builder = SimpleRequestBuilder.post(url)
+                .setBody(payload, ContentType.APPLICATION_JSON);
+        addCommonHeaders(builder, authHeader);
+        return execute(builder.build());
+    }
+
+    private void addCommonHeaders(SimpleRequestBuilder builder, String authHeader) {
+        builder.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            builder.addHeader(HttpHeaders.AUTHORIZATION, authHeader);
+        }
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> execute(SimpleHttpRequest request) {
+        CompletableFuture<ResponseEntity<byte[]>> result = new CompletableFuture<>();
+        asyncHttpClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                result.complete(toResponseEntity(response));
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                log.error("Async forward of {} {} failed: {}", request.getMethod(), request.getRequestUri(), ex.getMessage());
+                result.complete(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+            }
+
+            @Override
+            public void cancelled() {
+                log.warn("Async forward of {} {} was cancelled", request.getMethod(), request.getRequestUri());
+                result.complete(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+            }
+        });
+        return result;
+    }
+
+    private ResponseEntity<byte[]> toResponseEntity(SimpleHttpResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        for (Header header : response.getHeaders()) {
+            if (!HOP_BY_HOP_HEADERS.contains(header.getName().toLowerCase())) {
+                headers.add(header.getName(), header.getValue());
+            }
+        }
+        return ResponseEntity.status(response.getCode())
+                .headers(headers)
+                .body(response.getBodyBytes());
+    }
+}
@@ -1,11 +1,15 @@
 package com.example.demo.controller.forwardingControllers;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.ParameterizedTypeReference; // <-- Add this import
 import org.springframework.http.*;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
 
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 
 public abstract class BaseForwardingController {
@@ -13,8 +17,11 @@ public abstract class BaseForwardingController {
     protected final String SERVICE_PATH;
     protected final String baseUrl;
 
-    protected BaseForwardingController(String baseUrl, String servicePath) {
-        this.restTemplate = new RestTemplate();
+    @Autowired
+    protected AsyncForwardingClient asyncForwardingClient;
+
+    protected BaseForwardingController(String baseUrl, String servicePath, RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
         this.baseUrl = baseUrl;
         this.SERVICE_PATH = servicePath;
     }
@@ -175,6 +182,46 @@ public abstract class BaseForwardingController {
         }
     }
 
+    /**
+     * Forwards a GET through the non-blocking client when {@code route} is listed in
+     * {@code m1.forwarding.async-routes}, otherwise through the blocking {@link #forwardGet}.
+     */
+    protected <T> CompletableFuture<? extends ResponseEntity<?>> forwardGetRoute(
+            String route,
+            String path,
+            String authHeader,
+            ParameterizedTypeReference<T> responseType) {
+        return forwardGetRoute(route, URI.create(baseUrl + SERVICE_PATH + path), authHeader,
+                () -> forwardGet(path, authHeader, responseType));
+    }
+
+    /**
+     * Same as above for a fully built, already encoded target URI, with the blocking call supplied
+     * by the caller (for example when response headers have to be copied).
+     */
+    protected CompletableFuture<? extends ResponseEntity<?>> forwardGetRoute(
+            String route,
+            URI targetUri,
+            String authHeader,
+            Supplier<? extends ResponseEntity<?>> blockingForward) {
+        if (asyncForwardingClient.isAsyncRoute(route)) {
+            return asyncForwardingClient.get(targetUri, authHeader);
+        }
+        return CompletableFuture.completedFuture(blockingForward.get());
+    }
+
+    protected <T> CompletableFuture<? extends ResponseEntity<?>> forwardPostRoute(
+            String route,
+            String path,
+            Object body,
+            String authHeader,
+            Class<T> responseType) {
+        if (asyncForwardingClient.isAsyncRoute(route)) {
+            return asyncForwardingClient.post(baseUrl + SERVICE_PATH + path, body, authHeader);
+        }
+        return CompletableFuture.completedFuture(forwardPost(path, body, authHeader, responseType));
+    }
+
     HttpHeaders createHeaders(String authHeader) {
         HttpHeaders headers = new HttpHeaders();
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
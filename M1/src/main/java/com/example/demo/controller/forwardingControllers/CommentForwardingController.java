@@ -1,27 +1,37 @@
 package com.example.demo.controller.forwardingControllers;
 
 import com.example.demo.dto.forwardingdto.CommentViewDTO;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.RestTemplate;
 import java.util.Map;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/comments")
 public class CommentForwardingController extends BaseForwardingController {
 
-    public CommentForwardingController(@Value("${m2.service.url}") String m2ServiceUrl) {
-        super(m2ServiceUrl, "/api/comments");
+    private final ImageStreamingForwarder imageStreamingForwarder;
+
+    public CommentForwardingController(
+            @Value("${m2.service.url}") String m2ServiceUrl,
+            RestTemplate restTemplate,
+            ImageStreamingForwarder imageStreamingForwarder) {
+        super(m2ServiceUrl, "/api/comments", restTemplate);
+        this.imageStreamingForwarder = imageStreamingForwarder;
     }
 
     @PostMapping("/post/{postId}")
-    public ResponseEntity<CommentViewDTO> createComment(
+    public CompletableFuture<? extends ResponseEntity<?>> createComment(
             @PathVariable Long postId,
             @RequestBody Map<String, Object> commentRequest,
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
-        return forwardPost("/post/" + postId, commentRequest, authHeader, CommentViewDTO.class);
+        return forwardPostRoute("comments.create", "/post/" + postId, commentRequest, authHeader, CommentViewDTO.class);
     }
 
     @PutMapping("/{commentId}")
@@ -40,10 +50,18 @@ public class CommentForwardingController extends BaseForwardingController {
     }
 
     @GetMapping("/post/{postId}")
-    public ResponseEntity<List<CommentViewDTO>> getCommentsByPost(
+    public CompletableFuture<? extends ResponseEntity<?>> getCommentsByPost(
             @PathVariable Long postId,
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
-        return forwardGet("/post/" + postId, authHeader, new ParameterizedTypeReference<List<CommentViewDTO>>() {});
+        return forwardGetRoute("comments.by-post", "/post/" + postId, authHeader, new ParameterizedTypeReference<List<CommentViewDTO>>() {});
+    }
+
+    @GetMapping("/{commentId}/image")
+    public void getCommentImage(
+            @PathVariable Long commentId,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        imageStreamingForwarder.forward(baseUrl + SERVICE_PATH + "/" + commentId + "/image", request, response);
     }
 
 }
\ No newline at end of file
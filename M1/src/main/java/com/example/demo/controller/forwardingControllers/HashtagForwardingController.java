@@ -0,0 +1,39 @@
+package com.example.demo.controller.forwardingControllers;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/hashtags")
+public class HashtagForwardingController extends BaseForwardingController {
+
+    public HashtagForwardingController(
+            @Value("${m2.service.url}") String m2ServiceUrl,
+            RestTemplate restTemplate) {
+        super(m2ServiceUrl, "/api/m2/hashtags", restTemplate);
+    }
+
+    @GetMapping("/trending")
+    public CompletableFuture<? extends ResponseEntity<?>> getTrending(
+            @RequestParam(required = false) String window,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromPath("/trending");
+        if (window != null && !window.isBlank()) {
+            builder.queryParam("window", window);
+        }
+        if (limit != null) {
+            builder.queryParam("limit", limit);
+        }
+        return forwardGetRoute("hashtags.trending", builder.toUriString(), authHeader,
+                new ParameterizedTypeReference<List<Map<String, Object>>>() {});
+    }
+}
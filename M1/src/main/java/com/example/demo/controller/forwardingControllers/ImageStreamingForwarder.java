@@ -0,0 +1,90 @@
+package com.example.demo.controller.forwardingControllers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Relays binary image responses from M2 to the client through a fixed-size buffer. Conditional
+ * and range headers are passed through in both directions, so 304 and 206 responses from M2
+ * reach the client unchanged. Authorization is not relayed: M2 serves images without a token, so
+ * an expired one cannot turn a public image into a 401.
+ */
+@Component
+public class ImageStreamingForwarder {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageStreamingForwarder.class);
+
+    private static final List<String> REQUEST_HEADERS = List.of(
+            HttpHeaders.ACCEPT, HttpHeaders.RANGE, HttpHeaders.IF_RANGE,
+            HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+
+    private static final List<String> RESPONSE_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_RANGE,
+            HttpHeaders.ACCEPT_RANGES, HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.LAST_MODIFIED, HttpHeaders.VARY, "X-Content-Type-Options");
+
+    private final CloseableHttpClient httpClient;
+    private final int bufferSize;
+
+    public ImageStreamingForwarder(CloseableHttpClient httpClient,
+                                   @Value("${m1.forwarding.multipart.buffer-size:16384}") int bufferSize) {
+        this.httpClient = httpClient;
+        this.bufferSize = bufferSize;
+    }
+
+    public void forward(String targetUrl, HttpServletRequest request, HttpServletResponse response) {
+        HttpGet forwardRequest = new HttpGet(targetUrl);
+        for (String name : REQUEST_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                forwardRequest.setHeader(name, value);
+            }
+        }
+
+        try {
+            httpClient.execute(forwardRequest, upstream -> {
+                response.setStatus(upstream.getCode());
+                for (String name : RESPONSE_HEADERS) {
+                    Header header = upstream.getFirstHeader(name);
+                    if (header != null) {
+                        response.setHeader(name, header.getValue());
+                    }
+                }
+                HttpEntity entity = upstream.getEntity();
+                if (entity != null) {
+                    try (InputStream in = entity.getContent()) {
+                        OutputStream out = response.getOutputStream();
+                        byte[] buffer = new byte[bufferSize];
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            out.write(buffer, 0, read);
+                        }
+                        out.flush();
+                    }
+                }
+                return null;
+            });
+        } catch (IOException e) {
+            log.error("Error streaming image from {}: {}", targetUrl, e.getMessage());
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            }
+        }
+    }
+}
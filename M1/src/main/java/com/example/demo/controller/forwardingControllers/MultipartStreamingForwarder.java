@@ -0,0 +1,149 @@
+package com.example.demo.controller.forwardingControllers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.classic.methods.HttpPut;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Pipes a multipart upload straight from the client socket to M2 without letting Spring parse
+ * it. The body is copied through a single fixed-size buffer; a slow M2 blocks the write, which
+ * stops the read from the client, so memory per upload stays at {@code buffer-size} bytes.
+ * Requires {@code spring.servlet.multipart.resolve-lazily=true} so the body is still unread
+ * when the controller runs.
+ */
+@Component
+public class MultipartStreamingForwarder {
+
+    private static final Logger log = LoggerFactory.getLogger(MultipartStreamingForwarder.class);
+
+    private final CloseableHttpClient httpClient;
+    private final boolean enabled;
+    private final int bufferSize;
+    private final long maxRequestBytes;
+
+    public MultipartStreamingForwarder(CloseableHttpClient httpClient,
+                                       @Value("${m1.forwarding.multipart.streaming:true}") boolean enabled,
+                                       @Value("${m1.forwarding.multipart.buffer-size:16384}") int bufferSize,
+                                       @Value("${m1.forwarding.multipart.max-request-bytes:20971520}") long maxRequestBytes) {
+        this.httpClient = httpClient;
+        this.enabled = enabled;
+        this.bufferSize = bufferSize;
+        this.maxRequestBytes = maxRequestBytes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ResponseEntity<?> forward(HttpMethod method, String targetUrl, HttpServletRequest request, String authHeader) {
+        String contentType = request.getContentType();
+        if (contentType == null || !contentType.toLowerCase().startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body("Expected multipart/form-data upload.");
+        }
+        long contentLength = request.getContentLengthLong();
+        if (contentLength > maxRequestBytes) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body("Upload exceeds " + maxRequestBytes + " bytes.");
+        }
+
+        HttpUriRequestBase forwardRequest = method == HttpMethod.PUT ? new HttpPut(targetUrl) : new HttpPost(targetUrl);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            forwardRequest.setHeader(HttpHeaders.AUTHORIZATION, authHeader);
+        }
+        forwardRequest.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+
+        try {
+            // The original Content-Type is kept verbatim so M2 sees the same multipart boundary.
+            forwardRequest.setEntity(new StreamingRequestEntity(
+                    request.getInputStream(), contentLength, ContentType.parse(contentType)));
+            return httpClient.execute(forwardRequest, response -> {
+                HttpHeaders headers = new HttpHeaders();
+                if (response.getEntity() != null && response.getEntity().getContentType() != null) {
+                    headers.set(HttpHeaders.CONTENT_TYPE, response.getEntity().getContentType());
+                }
+                byte[] body = response.getEntity() != null ? EntityUtils.toByteArray(response.getEntity()) : null;
+                return ResponseEntity.status(response.getCode()).headers(headers).body(body);
+            });
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        } catch (IOException e) {
+            log.error("Error streaming multipart {} to {}: {}", method, targetUrl, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Error connecting to Post service: " + e.getMessage());
+        }
+    }
+
+    private static class UploadTooLargeException extends IOException {
+        UploadTooLargeException(long limit) {
+            super("Upload exceeds " + limit + " bytes.");
+        }
+    }
+
+    private class StreamingRequestEntity extends AbstractHttpEntity {
+
+        private final InputStream content;
+        private final long length;
+
+        StreamingRequestEntity(InputStream content, long length, ContentType contentType) {
+            super(contentType, null, length < 0);
+            this.content = content;
+            this.length = length;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public long getContentLength() {
+            return length;
+        }
+
+        @Override
+        public InputStream getContent() {
+            return content;
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return true;
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            byte[] buffer = new byte[bufferSize];
+            long transferred = 0;
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                transferred += read;
+                if (transferred > maxRequestBytes) {
+                    throw new UploadTooLargeException(maxRequestBytes);
+                }
+                outStream.write(buffer, 0, read);
+            }
+            outStream.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            content.close();
+        }
+    }
+}
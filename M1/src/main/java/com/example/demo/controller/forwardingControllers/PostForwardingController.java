@@ -2,6 +2,8 @@ package com.example.demo.controller.forwardingControllers;
 
 import com.example.demo.dto.forwardingdto.PostDTO;
 import com.example.demo.dto.forwardingdto.PostViewDTO;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,15 +12,19 @@ import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.*;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.ServletRequestDataBinder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 // import org.springframework.web.multipart.MultipartFile; // Nu mai este necesar aici daca PostDTO il are
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -26,25 +32,37 @@ public class PostForwardingController extends BaseForwardingController {
 
     private static final Logger log = LoggerFactory.getLogger(PostForwardingController.class);
 
-    private final RestTemplate restTemplate;
     private final String m2BaseUrl;
+    private final MultipartStreamingForwarder multipartStreamingForwarder;
+    private final ImageStreamingForwarder imageStreamingForwarder;
     private static final String SERVICE_PATH = "/api/posts";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     public PostForwardingController(
             @Value("${m2.service.url}") String m2ServiceUrl,
-            RestTemplate restTemplate) {
-        super(m2ServiceUrl, SERVICE_PATH);
+            RestTemplate restTemplate,
+            MultipartStreamingForwarder multipartStreamingForwarder,
+            ImageStreamingForwarder imageStreamingForwarder) {
+        super(m2ServiceUrl, SERVICE_PATH, restTemplate);
         this.m2BaseUrl = m2ServiceUrl;
-        this.restTemplate = restTemplate;
+        this.multipartStreamingForwarder = multipartStreamingForwarder;
+        this.imageStreamingForwarder = imageStreamingForwarder;
     }
 
     @PostMapping
     public ResponseEntity<?> createPost(
-            @ModelAttribute PostDTO postDTO,
+            HttpServletRequest request,
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
 
         String targetUrl = m2BaseUrl + SERVICE_PATH + "";
         log.info("Forwarding POST request (multipart) for post creation to M2: {}", targetUrl);
+        if (multipartStreamingForwarder.isEnabled()) {
+            return multipartStreamingForwarder.forward(HttpMethod.POST, targetUrl, request, authHeader);
+        }
+        PostDTO postDTO = bindPostDTO(request);
+        if (postDTO == null) {
+            return ResponseEntity.badRequest().body("Invalid post form data.");
+        }
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.MULTIPART_FORM_DATA);
@@ -96,6 +114,17 @@ public class PostForwardingController extends BaseForwardingController {
         }
     }
 
+    /**
+     * Binds the multipart form the same way {@code @ModelAttribute} would. Done by hand so that
+     * the streaming mode can skip parsing entirely (multipart resolution is lazy).
+     */
+    private PostDTO bindPostDTO(HttpServletRequest request) {
+        PostDTO postDTO = new PostDTO();
+        ServletRequestDataBinder binder = new ServletRequestDataBinder(postDTO);
+        binder.bind(request);
+        return binder.getBindingResult().hasErrors() ? null : postDTO;
+    }
+
     private HttpHeaders createHeadersInline(String authHeader) {
         HttpHeaders headers = new HttpHeaders();
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
@@ -108,9 +137,16 @@ public class PostForwardingController extends BaseForwardingController {
     @PutMapping("/{postId}")
     public ResponseEntity<?> updatePost(
             @PathVariable Long postId,
-            @ModelAttribute PostDTO postDTO,
+            HttpServletRequest request,
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
         String targetUrl = m2BaseUrl + SERVICE_PATH + "/" + postId;
+        if (multipartStreamingForwarder.isEnabled()) {
+            return multipartStreamingForwarder.forward(HttpMethod.PUT, targetUrl, request, authHeader);
+        }
+        PostDTO postDTO = bindPostDTO(request);
+        if (postDTO == null) {
+            return ResponseEntity.badRequest().body("Invalid post form data.");
+        }
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.MULTIPART_FORM_DATA);
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
@@ -155,136 +191,70 @@ public class PostForwardingController extends BaseForwardingController {
     }
 
     @GetMapping
-    public ResponseEntity<List<PostViewDTO>> getAllPosts(
+    public CompletableFuture<? extends ResponseEntity<?>> getAllPosts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
-        HttpHeaders headers = createHeadersInline(authHeader);
-        HttpEntity<?> requestEntity = new HttpEntity<>(headers);
-        String targetUrl = m2BaseUrl + SERVICE_PATH + "";
-        try {
-            return restTemplate.exchange(
-                    targetUrl,
-                    HttpMethod.GET,
-                    requestEntity,
-                    new ParameterizedTypeReference<List<PostViewDTO>>() {}
-            );
-        } catch (RestClientException e) {
-            if (e instanceof HttpClientErrorException hce) {
-                return ResponseEntity.status(hce.getStatusCode()).contentType(hce.getResponseHeaders().getContentType()).body(null);
-            } else if (e instanceof HttpServerErrorException hse) {
-                return ResponseEntity.status(hse.getStatusCode()).contentType(hse.getResponseHeaders().getContentType()).body(null);
-            }
-            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        URI targetUri = withPaging(UriComponentsBuilder.fromHttpUrl(m2BaseUrl + SERVICE_PATH), cursor, limit);
+        return forwardListGet("posts.feed", targetUri, authHeader);
     }
 
     @GetMapping("/by-reaction-count")
-    public ResponseEntity<List<PostViewDTO>> getAllPostsSortedByReactions(
+    public CompletableFuture<? extends ResponseEntity<?>> getAllPostsSortedByReactions(
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
-        HttpHeaders headers = createHeadersInline(authHeader);
-        HttpEntity<?> requestEntity = new HttpEntity<>(headers);
-        String targetUrl = m2BaseUrl + SERVICE_PATH + "/by-reaction-count";
-        log.info("Forwarding GET request for posts sorted by reactions to M2: {}", targetUrl);
-        try {
-            return restTemplate.exchange(
-                    targetUrl,
-                    HttpMethod.GET,
-                    requestEntity,
-                    new ParameterizedTypeReference<List<PostViewDTO>>() {}
-            );
-        } catch (HttpClientErrorException e) {
-            log.error("Client error from M2 (by-reaction-count): {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            return ResponseEntity.status(e.getStatusCode()).contentType(e.getResponseHeaders().getContentType()).body(null);
-        } catch (HttpServerErrorException e) {
-            log.error("Server error from M2 (by-reaction-count): {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            return ResponseEntity.status(e.getStatusCode()).contentType(e.getResponseHeaders().getContentType()).body(null);
-        } catch (RestClientException e) {
-            log.error("RestClientException during GET (by-reaction-count) forward to M2: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(null);
-        }
+        URI targetUri = URI.create(m2BaseUrl + SERVICE_PATH + "/by-reaction-count");
+        log.info("Forwarding GET request for posts sorted by reactions to M2: {}", targetUri);
+        return forwardListGet("posts.by-reaction-count", targetUri, authHeader);
     }
 
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<PostViewDTO>> getPostsByUser(
+    public CompletableFuture<? extends ResponseEntity<?>> getPostsByUser(
             @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
-        HttpHeaders headers = createHeadersInline(authHeader);
-        HttpEntity<?> requestEntity = new HttpEntity<>(headers);
-        String targetUrl = m2BaseUrl + SERVICE_PATH + "/user/" + userId;
-        try {
-            return restTemplate.exchange(
-                    targetUrl,
-                    HttpMethod.GET,
-                    requestEntity,
-                    new ParameterizedTypeReference<List<PostViewDTO>>() {}
-            );
-        } catch (RestClientException e) {
-            if (e instanceof HttpClientErrorException hce) {
-                return ResponseEntity.status(hce.getStatusCode()).contentType(hce.getResponseHeaders().getContentType()).body(null);
-            } else if (e instanceof HttpServerErrorException hse) {
-                return ResponseEntity.status(hse.getStatusCode()).contentType(hse.getResponseHeaders().getContentType()).body(null);
-            }
-            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        URI targetUri = withPaging(UriComponentsBuilder.fromHttpUrl(m2BaseUrl + SERVICE_PATH)
+                .pathSegment("user", String.valueOf(userId)), cursor, limit);
+        return forwardListGet("posts.by-user", targetUri, authHeader);
     }
 
     @GetMapping("/hashtag/{hashtag}")
-    public ResponseEntity<List<PostViewDTO>> getPostsByHashtag(
+    public CompletableFuture<? extends ResponseEntity<?>> getPostsByHashtag(
             @PathVariable String hashtag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
-        HttpHeaders headers = createHeadersInline(authHeader);
-        HttpEntity<?> requestEntity = new HttpEntity<>(headers);
-        String targetUrl = m2BaseUrl + SERVICE_PATH + "/hashtag/" + hashtag;
-        try {
-            return restTemplate.exchange(
-                    targetUrl,
-                    HttpMethod.GET,
-                    requestEntity,
-                    new ParameterizedTypeReference<List<PostViewDTO>>() {}
-            );
-        } catch (RestClientException e) {
-            if (e instanceof HttpClientErrorException hce) {
-                return ResponseEntity.status(hce.getStatusCode()).contentType(hce.getResponseHeaders().getContentType()).body(null);
-            } else if (e instanceof HttpServerErrorException hse) {
-                return ResponseEntity.status(hse.getStatusCode()).contentType(hse.getResponseHeaders().getContentType()).body(null);
-            }
-            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        URI targetUri = withPaging(UriComponentsBuilder.fromHttpUrl(m2BaseUrl + SERVICE_PATH)
+                .pathSegment("hashtag", hashtag), cursor, limit);
+        return forwardListGet("posts.by-hashtag", targetUri, authHeader);
     }
 
     @GetMapping("/hashtags")
-    public ResponseEntity<List<PostViewDTO>> getPostsByHashtags(
+    public CompletableFuture<? extends ResponseEntity<?>> getPostsByHashtags(
             @RequestParam List<String> tags,
+            @RequestParam(required = false) String mode,
+            @RequestParam(required = false) List<String> exclude,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
-        HttpHeaders headers = createHeadersInline(authHeader);
-        HttpEntity<?> requestEntity = new HttpEntity<>(headers);
-        org.springframework.web.util.UriComponentsBuilder builder = org.springframework.web.util.UriComponentsBuilder
-                .fromHttpUrl(m2BaseUrl + SERVICE_PATH + "/hashtags");
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(m2BaseUrl + SERVICE_PATH + "/hashtags");
         tags.forEach(tag -> builder.queryParam("tags", tag));
-        String targetUrl = builder.toUriString();
-        try {
-            return restTemplate.exchange(
-                    targetUrl,
-                    HttpMethod.GET,
-                    requestEntity,
-                    new ParameterizedTypeReference<List<PostViewDTO>>() {}
-            );
-        } catch (RestClientException e) {
-            if (e instanceof HttpClientErrorException hce) {
-                return ResponseEntity.status(hce.getStatusCode()).contentType(hce.getResponseHeaders().getContentType()).body(null);
-            } else if (e instanceof HttpServerErrorException hse) {
-                return ResponseEntity.status(hse.getStatusCode()).contentType(hse.getResponseHeaders().getContentType()).body(null);
-            }
-            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        if (mode != null && !mode.isBlank()) {
+            builder.queryParam("mode", mode);
+        }
+        if (exclude != null) {
+            exclude.forEach(tag -> builder.queryParam("exclude", tag));
         }
+        return forwardListGet("posts.by-hashtags", withPaging(builder, cursor, limit), authHeader);
+    }
+
+    @GetMapping("/{postId}/image")
+    public void getPostImage(
+            @PathVariable Long postId,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        imageStreamingForwarder.forward(m2BaseUrl + SERVICE_PATH + "/" + postId + "/image", request, response);
     }
 
     @DeleteMapping("/{postId}")
@@ -302,31 +272,66 @@ public class PostForwardingController extends BaseForwardingController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<PostViewDTO>> searchPostsByText(
+    public CompletableFuture<? extends ResponseEntity<?>> searchPostsByText(
             @RequestParam String query,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(m2BaseUrl + SERVICE_PATH + "/search")
+                .queryParam("query", query);
+        if (sort != null && !sort.isBlank()) {
+            builder.queryParam("sort", sort);
+        }
+        return forwardListGet("posts.search", withPaging(builder, cursor, limit), authHeader);
+    }
+
+    /**
+     * Appends the keyset paging parameters and encodes the URI once; both forwarding paths send
+     * it as is. M2 returns the next cursor in the X-Next-Cursor header; the async path relays it
+     * with the other headers, the blocking path copies it.
+     */
+    private URI withPaging(UriComponentsBuilder builder, String cursor, Integer limit) {
+        if (cursor != null && !cursor.isBlank()) {
+            builder.queryParam("cursor", cursor);
+        }
+        if (limit != null) {
+            builder.queryParam("limit", limit);
+        }
+        return builder.build().encode().toUri();
+    }
+
+    private CompletableFuture<? extends ResponseEntity<?>> forwardListGet(String route, URI targetUri, String authHeader) {
+        return forwardGetRoute(route, targetUri, authHeader, () -> exchangePostList(targetUri, authHeader));
+    }
+
+    private ResponseEntity<List<PostViewDTO>> exchangePostList(URI targetUri, String authHeader) {
         HttpHeaders headers = createHeadersInline(authHeader);
         HttpEntity<?> requestEntity = new HttpEntity<>(headers);
-        org.springframework.web.util.UriComponentsBuilder builder = org.springframework.web.util.UriComponentsBuilder
-                .fromHttpUrl(m2BaseUrl + SERVICE_PATH + "/search")
-                .queryParam("query", query);
-        String targetUrl = builder.toUriString();
         try {
-            return restTemplate.exchange(
-                    targetUrl,
+            ResponseEntity<List<PostViewDTO>> response = restTemplate.exchange(
+                    targetUri,
                     HttpMethod.GET,
                     requestEntity,
                     new ParameterizedTypeReference<List<PostViewDTO>>() {}
             );
-        } catch (RestClientException e) {
-            if (e instanceof HttpClientErrorException hce) {
-                return ResponseEntity.status(hce.getStatusCode()).contentType(hce.getResponseHeaders().getContentType()).body(null);
-            } else if (e instanceof HttpServerErrorException hse) {
-                return ResponseEntity.status(hse.getStatusCode()).contentType(hse.getResponseHeaders().getContentType()).body(null);
+            ResponseEntity.BodyBuilder forwarded = ResponseEntity.status(response.getStatusCode());
+            String nextCursor = response.getHeaders().getFirst(NEXT_CURSOR_HEADER);
+            if (nextCursor != null) {
+                forwarded.header(NEXT_CURSOR_HEADER, nextCursor);
             }
+            return forwarded.body(response.getBody());
+        } catch (HttpClientErrorException e) {
+            log.error("Client error from M2 ({}): {} - {}", targetUri, e.getStatusCode(), e.getResponseBodyAsString());
+            return ResponseEntity.status(e.getStatusCode()).contentType(e.getResponseHeaders().getContentType()).body(null);
+        } catch (HttpServerErrorException e) {
+            log.error("Server error from M2 ({}): {} - {}", targetUri, e.getStatusCode(), e.getResponseBodyAsString());
+            return ResponseEntity.status(e.getStatusCode()).contentType(e.getResponseHeaders().getContentType()).body(null);
+        } catch (RestClientException e) {
+            log.error("RestClientException during GET forward to M2 ({}): {}", targetUri, e.getMessage());
             return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+}
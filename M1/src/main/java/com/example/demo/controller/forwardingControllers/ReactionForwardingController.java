@@ -153,4 +153,50 @@ public class ReactionForwardingController {
             return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Error connecting to Reaction service (GET count).");
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/summary")
+    public ResponseEntity<?> getReactionSummaries(@RequestBody Object targets,
+                                                  @RequestHeader(value="Authorization") String authHeader) {
+        HttpHeaders headers = createHeadersWithAuthAndUserId(authHeader);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<?> requestEntity = new HttpEntity<>(targets, headers);
+
+        String targetUrl = m3BaseUrl + "/summary";
+        log.info("Forwarding POST request to M3: {} with X-User-ID header if available", targetUrl);
+        try {
+            return restTemplate.exchange(targetUrl, HttpMethod.POST, requestEntity, new ParameterizedTypeReference<List<?>>() {});
+        } catch (HttpClientErrorException e) {
+            log.error("Client error from M3 (getReactionSummaries): {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            return ResponseEntity.status(e.getStatusCode()).contentType(e.getResponseHeaders().getContentType()).body(e.getResponseBodyAsString());
+        } catch (HttpServerErrorException e) {
+            log.error("Server error from M3 (getReactionSummaries): {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            return ResponseEntity.status(e.getStatusCode()).contentType(e.getResponseHeaders().getContentType()).body(e.getResponseBodyAsString());
+        } catch (RestClientException e) {
+            log.error("RestClientException during POST (getReactionSummaries) forward to M3: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Error connecting to Reaction service (POST summary).");
+        }
+    }
+
+    @PostMapping("/mine")
+    public ResponseEntity<?> getMyReactions(@RequestBody Object targets,
+                                            @RequestHeader(value="Authorization") String authHeader) {
+        HttpHeaders headers = createHeadersWithAuthAndUserId(authHeader);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<?> requestEntity = new HttpEntity<>(targets, headers);
+
+        String targetUrl = m3BaseUrl + "/mine";
+        log.info("Forwarding POST request to M3: {} with X-User-ID header if available", targetUrl);
+        try {
+            return restTemplate.exchange(targetUrl, HttpMethod.POST, requestEntity, new ParameterizedTypeReference<List<?>>() {});
+        } catch (HttpClientErrorException e) {
+            log.error("Client error from M3 (getMyReactions): {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            return ResponseEntity.status(e.getStatusCode()).contentType(e.getResponseHeaders().getContentType()).body(e.getResponseBodyAsString());
+        } catch (HttpServerErrorException e) {
+            log.error("Server error from M3 (getMyReactions): {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            return ResponseEntity.status(e.getStatusCode()).contentType(e.getResponseHeaders().getContentType()).body(e.getResponseBodyAsString());
+        } catch (RestClientException e) {
+            log.error("RestClientException during POST (getMyReactions) forward to M3: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Error connecting to Reaction service (POST mine).");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.dto.authdto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenClaims {
+    private String subject;
+    private Long userId;
+    private String email;
+    private Date expiration;
+}
@@ -13,6 +13,7 @@ import java.time.LocalDateTime;
 public class CommentViewDTO {
     private Long id;
     private String content;
+    private String imageUrl;
     private String imageBase64;
 
     @JsonFormat(pattern="yyyy-MM-dd HH:mm:ss")
@@ -16,6 +16,7 @@ import java.util.HashSet;
 public class PostViewDTO {
     private Long id;
     private String content;
+    private String imageUrl;
     private String imageBase64;
     private PostType postType;
 
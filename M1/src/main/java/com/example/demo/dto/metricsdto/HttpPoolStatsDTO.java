@@ -0,0 +1,16 @@
+package com.example.demo.dto.metricsdto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HttpPoolStatsDTO {
+    private String route;
+    private int leased;
+    private int pending;
+    private int available;
+    private int max;
+}
@@ -0,0 +1,19 @@
+package com.example.demo.dto.metricsdto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordHashingStatsDTO {
+    private int poolSize;
+    private int activeThreads;
+    private int queueDepth;
+    private int queueCapacity;
+    private long completed;
+    private long rejected;
+    private double averageQueueWaitMillis;
+    private double averageHashMillis;
+}
@@ -21,6 +21,13 @@ public class ExceptionControllerHandler {
         return createHttpResponse(HttpStatus.BAD_REQUEST, exception.getMessage());
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<HttpErrorResponse> serviceBusyException(ServiceBusyException exception)
+    {
+        LOGGER.warn(exception.getMessage());
+        return createHttpResponse(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage());
+    }
+
     private ResponseEntity<HttpErrorResponse> createHttpResponse(HttpStatus httpStatus, String message){
         HttpErrorResponse httpErrorResponse = HttpErrorResponse.builder()
                 .timeStamp(LocalDateTime.now())
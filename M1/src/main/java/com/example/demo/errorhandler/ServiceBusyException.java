@@ -0,0 +1,11 @@
+package com.example.demo.errorhandler;
+
+public class ServiceBusyException extends DemoException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.authdto.TokenClaims;
+import com.example.demo.dto.metricsdto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -11,11 +18,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.security.Key; // Import Key interface
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JWTService {
@@ -25,8 +36,16 @@ public class JWTService {
     @Value("${jwt.secret}")
     private String secretKey;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    @Value("${jwt.claims-cache.ttl-seconds:300}")
+    private long claimsCacheTtlSeconds;
+
     private volatile SecretKey key = null;
 
+    private Cache<String, TokenClaims> claimsCache;
+
     public String generateToken(Long userId, String email) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("email", email);
@@ -80,86 +99,138 @@ public class JWTService {
     }
 
 
-    public boolean validateToken(String jwtToken, UserDetails userDetails) {
-        try {
-            SecretKey currentKey = getKey();
-            if (currentKey == null) {
-                logger.error("Token validation failed: Secret key is null.");
-                return false;
-            }
+    @PostConstruct
+    void initClaimsCache() {
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, TokenClaims>() {
+                    @Override
+                    public long expireAfterCreate(String digest, TokenClaims claims, long currentTime) {
+                        return timeToLiveNanos(claims);
+                    }
 
-            Jwts.parser()
-                    .verifyWith(currentKey)
-                    .build()
-                    .parseSignedClaims(jwtToken);
+                    @Override
+                    public long expireAfterUpdate(String digest, TokenClaims claims, long currentTime, long currentDuration) {
+                        return timeToLiveNanos(claims);
+                    }
 
-            logger.debug("Token claims validated successfully.");
+                    @Override
+                    public long expireAfterRead(String digest, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
 
-            if (isTokenExpired(jwtToken)) {
-                logger.warn("Token validation failed: Token is expired.");
-                return false;
+    /**
+     * Verifies the token once and returns its claims, or {@code null} if the token is invalid or expired.
+     * Verified claims are cached by token digest until the token expires (at most {@code jwt.claims-cache.ttl-seconds}),
+     * so repeated calls for the same token skip the signature check.
+     */
+    public TokenClaims verify(String jwtToken) {
+        if (jwtToken == null || jwtToken.isBlank()) {
+            return null;
+        }
+        String digest = digest(jwtToken);
+        TokenClaims cached = claimsCache.getIfPresent(digest);
+        if (cached != null) {
+            if (isExpired(cached)) {
+                claimsCache.invalidate(digest);
+                return null;
             }
-
-            return true;
-        } catch (Exception e) {
-            logger.error("Token validation failed: {}", e.getMessage());
-            return false;
+            return cached;
         }
-    }
-
 
-    private boolean isTokenExpired(String jwtToken) {
         try {
-            return extractExpiration(jwtToken).before(new Date());
+            Claims claims = extractAllClaims(jwtToken);
+            TokenClaims tokenClaims = new TokenClaims(
+                    claims.getSubject(),
+                    parseUserId(claims.getSubject()),
+                    claims.get("email", String.class),
+                    claims.getExpiration());
+            if (isExpired(tokenClaims)) {
+                logger.warn("Token validation failed: Token is expired.");
+                return null;
+            }
+            claimsCache.put(digest, tokenClaims);
+            return tokenClaims;
         } catch (Exception e) {
-            logger.error("Could not extract expiration from token: {}", e.getMessage());
-            return true;
+            logger.error("Token validation failed: {}", e.getMessage());
+            return null;
         }
     }
 
-    private Date extractExpiration(String jwtToken) {
-        return extractClaim(jwtToken, Claims::getExpiration);
+    public boolean validateToken(String jwtToken, UserDetails userDetails) {
+        return verify(jwtToken) != null;
     }
 
     public String extractSubject(String jwtToken) {
-        return extractClaim(jwtToken, Claims::getSubject);
+        TokenClaims claims = verify(jwtToken);
+        if (claims == null) {
+            throw new RuntimeException("Invalid or expired token");
+        }
+        return claims.getSubject();
     }
 
     public Long extractUserId(String jwtToken) {
-        try {
-            String subject = extractSubject(jwtToken);
-            if (subject == null) {
-                logger.error("Token subject (user ID) is null.");
-                throw new RuntimeException("Token subject (user ID) is null");
-            }
-            return Long.parseLong(subject);
-        } catch (NumberFormatException e) {
-            logger.error("Invalid user ID format '{}' in token subject.", extractSubject(jwtToken), e);
-            throw new RuntimeException("Invalid user ID in token subject", e);
-        } catch (Exception e) {
-            logger.error("Failed to extract user ID from token: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to extract user ID from token", e);
+        TokenClaims claims = verify(jwtToken);
+        if (claims == null) {
+            logger.error("Failed to extract user ID from token: token is invalid or expired.");
+            throw new RuntimeException("Failed to extract user ID from token");
+        }
+        if (claims.getUserId() == null) {
+            logger.error("Invalid user ID format '{}' in token subject.", claims.getSubject());
+            throw new RuntimeException("Invalid user ID in token subject");
         }
+        return claims.getUserId();
     }
 
     public String extractEmail(String jwtToken) {
-        try {
-            Claims claims = extractAllClaims(jwtToken);
-            String email = claims.get("email", String.class);
-            if (email == null) {
-                logger.warn("Email claim not found or not a String in token for subject {}", claims.getSubject());
-            }
-            return email;
-        } catch (Exception e) {
-            logger.error("Failed to extract email claim from token: {}", e.getMessage(), e);
+        TokenClaims claims = verify(jwtToken);
+        if (claims == null) {
+            logger.error("Failed to extract email claim from token: token is invalid or expired.");
             return null;
         }
+        if (claims.getEmail() == null) {
+            logger.warn("Email claim not found or not a String in token for subject {}", claims.getSubject());
+        }
+        return claims.getEmail();
+    }
+
+    public CacheStatsDTO getClaimsCacheStats() {
+        CacheStats stats = claimsCache.stats();
+        return new CacheStatsDTO("jwt-claims", claimsCache.estimatedSize(), stats.hitCount(),
+                stats.missCount(), stats.hitRate(), stats.evictionCount());
+    }
+
+    private long timeToLiveNanos(TokenClaims claims) {
+        long maxTtlMillis = TimeUnit.SECONDS.toMillis(claimsCacheTtlSeconds);
+        long untilExpiryMillis = claims.getExpiration() == null
+                ? maxTtlMillis
+                : claims.getExpiration().getTime() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, Math.min(maxTtlMillis, untilExpiryMillis)));
     }
 
+    private boolean isExpired(TokenClaims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
+    }
+
+    private Long parseUserId(String subject) {
+        try {
+            return subject == null ? null : Long.parseLong(subject);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 
-    private <T> T extractClaim(String jwtToken, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(jwtToken);
-        return claimsResolver.apply(claims);
+    private String digest(String jwtToken) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(jwtToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     private Claims extractAllClaims(String jwtToken) {
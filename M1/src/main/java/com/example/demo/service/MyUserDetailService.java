@@ -1,14 +1,23 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.metricsdto.CacheStatsDTO;
 import com.example.demo.entity.User;
 import com.example.demo.entity.UserPrincipal;
 import com.example.demo.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.Optional;
 
 @Service
@@ -17,8 +26,56 @@ public class MyUserDetailService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${security.user-cache.max-size:10000}")
+    private long userCacheMaxSize;
+
+    @Value("${security.user-cache.ttl-seconds:300}")
+    private long userCacheTtlSeconds;
+
+    private Cache<String, UserDetails> userDetailsCache;
+
+    @PostConstruct
+    void initUserDetailsCache() {
+        userDetailsCache = Caffeine.newBuilder()
+                .maximumSize(userCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(userCacheTtlSeconds))
+                .recordStats()
+                .build();
+    }
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        UserDetails cached = userDetailsCache.get(email, this::loadFromDatabase);
+        // Hand out a copy: the authentication manager erases credentials on the instance it is given.
+        return org.springframework.security.core.userdetails.User.withUserDetails(cached).build();
+    }
+
+    /**
+     * Drops the cached principal for {@code email}. When called inside a transaction the entry is
+     * dropped again after commit, so a concurrent request cannot re-cache the pre-update row.
+     */
+    public void evictUser(String email) {
+        if (email == null) {
+            return;
+        }
+        userDetailsCache.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userDetailsCache.invalidate(email);
+                }
+            });
+        }
+    }
+
+    public CacheStatsDTO getCacheStats() {
+        CacheStats stats = userDetailsCache.stats();
+        return new CacheStatsDTO("user-details", userDetailsCache.estimatedSize(), stats.hitCount(),
+                stats.missCount(), stats.hitRate(), stats.evictionCount());
+    }
+
+    private UserDetails loadFromDatabase(String email) {
         User user = userRepository.findUserByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
@@ -0,0 +1,128 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.metricsdto.PasswordHashingStatsDTO;
+import com.example.demo.errorhandler.ServiceBusyException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs BCrypt work (login verification, password encoding) on a small executor sized to the CPU
+ * count with a bounded queue. When the queue is full, callers get a {@link ServiceBusyException}
+ * (mapped to 503) right away, so a login storm cannot occupy every Tomcat thread.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+
+    public PasswordHashingService(BCryptPasswordEncoder bCryptPasswordEncoder,
+                                  @Value("${security.hashing.pool-size:0}") int poolSize,
+                                  @Value("${security.hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${security.hashing.timeout-ms:5000}") long timeoutMillis) {
+        this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(String rawPassword) throws ServiceBusyException {
+        return run(() -> bCryptPasswordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Runs {@code task} on the hashing executor and waits for it. Runtime exceptions thrown by the
+     * task (e.g. {@code AuthenticationException}) are rethrown unchanged.
+     */
+    public <T> T run(Callable<T> task) throws ServiceBusyException {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                totalQueueWaitNanos.add(startedAt - submittedAt);
+                try {
+                    return task.call();
+                } finally {
+                    totalHashNanos.add(System.nanoTime() - startedAt);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            logger.warn("Password hashing queue is full ({} queued), rejecting request.", executor.getQueue().size());
+            throw new ServiceBusyException("Authentication service is busy, please retry shortly.");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceBusyException("Authentication service is busy, please retry shortly.");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Authentication was interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    public PasswordHashingStatsDTO getStats() {
+        long completedCount = completed.sum();
+        return new PasswordHashingStatsDTO(
+                executor.getPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                completedCount,
+                rejected.sum(),
+                completedCount == 0 ? 0 : totalQueueWaitNanos.sum() / 1_000_000.0 / completedCount,
+                completedCount == 0 ? 0 : totalHashNanos.sum() / 1_000_000.0 / completedCount);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -7,6 +7,7 @@ import com.example.demo.dto.userdto.UserDTO;
 import com.example.demo.dto.userdto.UserViewDTO;
 import com.example.demo.entity.Role;
 import com.example.demo.entity.User;
+import com.example.demo.errorhandler.ServiceBusyException;
 import com.example.demo.errorhandler.UserException;
 import com.example.demo.repository.RoleRepository;
 import com.example.demo.repository.UserRepository;
@@ -20,7 +21,6 @@ import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -36,10 +36,11 @@ public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
     private final RoleRepository roleRepository;
-    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final UserRepository userRepository;
     private final AuthenticationManager authenticationManager;
     private final JWTService jwtService;
+    private final MyUserDetailService userDetailService;
 
     public List<UserViewDTO> findAllUserView() {
         return userRepository.findAll().stream()
@@ -77,7 +78,7 @@ public class UserService {
     }
 
 
-    public Long createUser(UserDTO userDTO) throws UserException {
+    public Long createUser(UserDTO userDTO) throws UserException, ServiceBusyException {
         List<String> errors = UserFieldValidator.validateInsertOrUpdate(userDTO);
         if (!errors.isEmpty()) {
             String errorMsg = StringUtils.collectionToDelimitedString(errors, "; ");
@@ -98,7 +99,7 @@ public class UserService {
         }
 
         User userSave = UserBuilder.generateEntityFromDTO(userDTO, role);
-        userSave.setPassword(bCryptPasswordEncoder.encode(userSave.getPassword()));
+        userSave.setPassword(passwordHashingService.encode(userSave.getPassword()));
         userSave.setTimeStamp(LocalDateTime.now());
 
         User savedUser = userRepository.save(userSave);
@@ -106,7 +107,12 @@ public class UserService {
         return savedUser.getId();
     }
 
-    public Long updateUser(UserDTO userDTO) throws UserException {
+    /**
+     * Not transactional, so the password is hashed without holding a connection. With
+     * open-in-view disabled the loaded user is detached; the changes are written in the single
+     * transaction of {@code save}, and the cached principal is evicted after it has committed.
+     */
+    public Long updateUser(UserDTO userDTO) throws UserException, ServiceBusyException {
         List<String> errors = UserFieldValidator.validateInsertOrUpdate(userDTO);
         if (!errors.isEmpty()) {
             String errorMsg = StringUtils.collectionToDelimitedString(errors, "; ");
@@ -114,6 +120,11 @@ public class UserService {
             throw new UserException(errorMsg);
         }
 
+        String encodedPassword = null;
+        if (userDTO.getPassword() != null && !userDTO.getPassword().isEmpty()) {
+            encodedPassword = passwordHashingService.encode(userDTO.getPassword());
+        }
+
         Role role = roleRepository.findRoleByName(userDTO.getRoleName().toUpperCase())
                 .orElseThrow(() -> {
                     logger.error("Role not found: {}", userDTO.getRoleName().toUpperCase());
@@ -126,6 +137,7 @@ public class UserService {
                     return new UserException("User not found with id field: " + userDTO.getId());
                 });
 
+        String previousEmail = user.getEmail();
         if (!user.getEmail().equals(userDTO.getEmail())) {
             if (userRepository.findUserByEmail(userDTO.getEmail()).isPresent()) {
                 logger.warn("Attempted to update user ID {} with duplicate email: {}", userDTO.getId(), userDTO.getEmail());
@@ -135,12 +147,13 @@ public class UserService {
         }
 
         user.setName(userDTO.getName());
-        if (userDTO.getPassword() != null && !userDTO.getPassword().isEmpty()) {
-            user.setPassword(bCryptPasswordEncoder.encode(userDTO.getPassword()));
+        if (encodedPassword != null) {
+            user.setPassword(encodedPassword);
         }
         user.setRole(role);
 
         User updatedUser = userRepository.save(user);
+        userDetailService.evictUser(previousEmail);
         logger.info("User updated successfully with ID: {}", updatedUser.getId());
         return updatedUser.getId();
     }
@@ -153,6 +166,7 @@ public class UserService {
                     return new UserException("User not found with id field: " + id);
                 });
         userRepository.delete(user);
+        userDetailService.evictUser(user.getEmail());
         logger.info("User deleted successfully with ID: {}", id);
     }
 
@@ -171,12 +185,15 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional
-    public User register(User user) throws UserException {
+    /**
+     * Not transactional, so registration bursts wait on the hashing pool without holding
+     * database connections; each repository call runs in its own short transaction.
+     */
+    public User register(User user) throws UserException, ServiceBusyException {
         if (userRepository.findUserByEmail(user.getEmail()).isPresent()) {
             throw new UserException("Email already exists: " + user.getEmail());
         }
-        user.setPassword(bCryptPasswordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
         if (user.getRole() == null) {
             Role defaultRole = roleRepository.findByName("USER");
             if(defaultRole == null) {
@@ -190,7 +207,7 @@ public class UserService {
         return savedUser;
     }
 
-    public AuthResponse login(User userLoginAttempt) throws UserException {
+    public AuthResponse login(User userLoginAttempt) throws UserException, ServiceBusyException {
         try {
             logger.info("Attempting authentication for user: {}", userLoginAttempt.getEmail());
 
@@ -202,9 +219,9 @@ public class UserService {
                 throw new DisabledException("Your account has been blocked. Reason: " + user.getBlockedReason());
             }
 
-            Authentication authentication = authenticationManager.authenticate(
+            Authentication authentication = passwordHashingService.run(() -> authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(userLoginAttempt.getEmail(), userLoginAttempt.getPassword())
-            );
+            ));
 
 
             logger.info("Authentication successful for user: {}", user.getEmail());
@@ -224,6 +241,8 @@ public class UserService {
                 throw new UserException(e.getMessage());
             }
             throw new UserException("Invalid email or password.");
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Unexpected error during login process for user {}: {}", userLoginAttempt.getEmail(), e.getMessage(), e);
             throw new UserException("Login process failed due to an unexpected error.");
@@ -250,6 +269,7 @@ public class UserService {
         userToBlock.setBlockedAt(LocalDateTime.now());
         userToBlock.setBlockedByAdminId(actionPerformingAdminId);
         userRepository.save(userToBlock);
+        userDetailService.evictUser(userToBlock.getEmail());
         logger.info("User {} blocked by admin {} with reason: {}", targetUserId, actionPerformingAdminId, reason);
     }
 
@@ -273,6 +293,7 @@ public class UserService {
         userToUnblock.setBlockedReason(null);
         userToUnblock.setBlockedAt(null);
         userRepository.save(userToUnblock);
+        userDetailService.evictUser(userToUnblock.getEmail());
         logger.info("User {} unblocked by admin {}", targetUserId, actionPerformingAdminId);
     }
 
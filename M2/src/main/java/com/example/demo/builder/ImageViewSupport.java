@@ -0,0 +1,58 @@
+package com.example.demo.builder;
+
+import com.example.demo.storage.BlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Base64;
+
+/**
+ * Builds the image fields of the view DTOs. Images are referenced by URL; the URL carries a
+ * prefix of the content hash, so it changes whenever the image does and can be cached freely.
+ * Inline base64 is only produced for old clients, either globally via
+ * {@code m2.images.inline-base64} or per request with {@code ?inlineImages=true}.
+ */
+@Component
+public class ImageViewSupport {
+
+    public static final String INLINE_IMAGES_PARAM = "inlineImages";
+
+    private static final int VERSION_LENGTH = 16;
+
+    private final BlobStore blobStore;
+    private final String urlPrefix;
+    private final boolean inlineByDefault;
+
+    public ImageViewSupport(BlobStore blobStore,
+                            @Value("${m2.images.url-prefix:/api/m2}") String urlPrefix,
+                            @Value("${m2.images.inline-base64:false}") boolean inlineByDefault) {
+        this.blobStore = blobStore;
+        this.urlPrefix = urlPrefix;
+        this.inlineByDefault = inlineByDefault;
+    }
+
+    public String imageUrl(String collection, Long id, String hash) {
+        return urlPrefix + "/" + collection + "/" + id + "/image?v=" + hash.substring(0, VERSION_LENGTH);
+    }
+
+    public String inlineBase64(String hash) {
+        if (!inlineRequested()) {
+            return null;
+        }
+        return blobStore.read(hash).map(Base64.getEncoder()::encodeToString).orElse(null);
+    }
+
+    private boolean inlineRequested() {
+        if (inlineByDefault) {
+            return true;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return Boolean.parseBoolean(servletAttributes.getRequest().getParameter(INLINE_IMAGES_PARAM));
+        }
+        return false;
+    }
+}
@@ -4,10 +4,13 @@ import com.example.demo.dto.commentdto.CommentDTO;
 import com.example.demo.entity.Comment;
 import com.example.demo.entity.Post;
 import com.example.demo.entity.User;
+import com.example.demo.storage.BlobStore;
 import org.slf4j.Logger; // Add logging
 import org.slf4j.LoggerFactory; // Add logging
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.util.Base64;
 
 @Component
@@ -15,6 +18,12 @@ public class CommentBuilder {
 
     private static final Logger log = LoggerFactory.getLogger(CommentBuilder.class);
 
+    private final BlobStore blobStore;
+
+    public CommentBuilder(BlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
     public Comment generateEntityFromDTO(CommentDTO commentDTO, User user, Post post) {
         Comment comment = new Comment();
         comment.setContent(commentDTO.getContent());
@@ -24,14 +33,18 @@ public class CommentBuilder {
         String imageBase64 = commentDTO.getImageBase64();
         if (imageBase64 != null && !imageBase64.trim().isEmpty()) {
             try {
-                comment.setImage(Base64.getDecoder().decode(imageBase64));
-                log.debug("Image bytes set for new comment");
+                byte[] imageBytes = Base64.getDecoder().decode(imageBase64);
+                comment.attachImage(blobStore.store(new ByteArrayInputStream(imageBytes), null));
+                log.debug("Image stored as blob {} for new comment", comment.getImageHash());
             } catch (IllegalArgumentException e) {
                 log.error("Invalid Base64 image data received for new comment: {}", e.getMessage());
-                comment.setImage(null);
+                comment.clearImage();
+            } catch (IOException e) {
+                log.error("Could not store image for new comment: {}", e.getMessage());
+                comment.clearImage();
             }
         } else {
-            comment.setImage(null);
+            comment.clearImage();
         }
 
         return comment;
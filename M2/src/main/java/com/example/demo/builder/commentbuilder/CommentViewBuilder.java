@@ -2,15 +2,23 @@ package com.example.demo.builder.commentbuilder;
 
 import com.example.demo.dto.commentdto.CommentViewDTO;
 import com.example.demo.entity.Comment;
+import com.example.demo.builder.ImageViewSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.util.Base64;
+import org.springframework.stereotype.Component;
 
+@Component
 public class CommentViewBuilder {
 
     private static final Logger log = LoggerFactory.getLogger(CommentViewBuilder.class);
 
-    public static CommentViewDTO generateDTOFromEntity(Comment comment) {
+    private final ImageViewSupport imageViewSupport;
+
+    public CommentViewBuilder(ImageViewSupport imageViewSupport) {
+        this.imageViewSupport = imageViewSupport;
+    }
+
+    public CommentViewDTO generateDTOFromEntity(Comment comment) {
         if (comment == null) {
             log.warn("Attempted to build CommentViewDTO from null Comment entity");
             return null;
@@ -37,12 +45,11 @@ public class CommentViewBuilder {
             dto.setPostId(null);
         }
 
-        if (comment.getImage() != null && comment.getImage().length > 0) {
-            dto.setImageBase64(Base64.getEncoder().encodeToString(comment.getImage()));
-        } else {
-            dto.setImageBase64(null);
+        if (comment.hasImage()) {
+            dto.setImageUrl(imageViewSupport.imageUrl("comments", comment.getId(), comment.getImageHash()));
+            dto.setImageBase64(imageViewSupport.inlineBase64(comment.getImageHash()));
         }
 
         return dto;
     }
-}
\ No newline at end of file
+}
@@ -5,12 +5,14 @@ import com.example.demo.entity.Hashtag;
 import com.example.demo.entity.Post;
 import com.example.demo.entity.User;
 import com.example.demo.repository.HashtagRepository; // Keep if hashtag logic is here
+import com.example.demo.storage.BlobStore;
 import org.slf4j.Logger; // Add logging
 import org.slf4j.LoggerFactory; // Add logging
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile; // Add MultipartFile
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -20,6 +22,12 @@ public class PostBuilder {
 
     private static final Logger log = LoggerFactory.getLogger(PostBuilder.class);
 
+    private final BlobStore blobStore;
+
+    public PostBuilder(BlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
     public Post generateEntityFromDTO(PostDTO postDTO, User user) throws IOException {
         Post post = new Post();
         post.setContent(postDTO.getContent());
@@ -28,9 +36,9 @@ public class PostBuilder {
 
         MultipartFile imageFile = postDTO.getImage();
         if (imageFile != null && !imageFile.isEmpty()) {
-            try {
-                post.setImage(imageFile.getBytes());
-                log.debug("Image bytes set for new post");
+            try (InputStream content = imageFile.getInputStream()) {
+                post.attachImage(blobStore.store(content, imageFile.getContentType()));
+                log.debug("Image stored as blob {} for new post", post.getImageHash());
             } catch (IOException e) {
                 log.error("IOException reading image bytes: {}", e.getMessage());
                 throw e;
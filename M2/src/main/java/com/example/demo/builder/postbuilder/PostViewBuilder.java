@@ -1,5 +1,6 @@
 package com.example.demo.builder.postbuilder;
 
+import com.example.demo.builder.ImageViewSupport;
 import com.example.demo.builder.commentbuilder.CommentViewBuilder;
 import com.example.demo.dto.postdto.PostViewDTO;
 import com.example.demo.entity.Comment;
@@ -7,18 +8,27 @@ import com.example.demo.entity.Post;
 import com.example.demo.entity.Hashtag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
 
-import java.util.Base64;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+@Component
 public class PostViewBuilder {
 
     private static final Logger log = LoggerFactory.getLogger(PostViewBuilder.class);
 
-    public static PostViewDTO generateDTOFromEntity(Post post) {
+    private final CommentViewBuilder commentViewBuilder;
+    private final ImageViewSupport imageViewSupport;
+
+    public PostViewBuilder(CommentViewBuilder commentViewBuilder, ImageViewSupport imageViewSupport) {
+        this.commentViewBuilder = commentViewBuilder;
+        this.imageViewSupport = imageViewSupport;
+    }
+
+    public PostViewDTO generateDTOFromEntity(Post post) {
         if (post == null) {
             log.warn("Attempted to build PostViewDTO from null Post entity");
             return null;
@@ -39,10 +49,9 @@ public class PostViewBuilder {
             dto.setUserId(null);
         }
 
-        if (post.getImage() != null && post.getImage().length > 0) {
-            dto.setImageBase64(Base64.getEncoder().encodeToString(post.getImage()));
-        } else {
-            dto.setImageBase64(null);
+        if (post.hasImage()) {
+            dto.setImageUrl(imageViewSupport.imageUrl("posts", post.getId(), post.getImageHash()));
+            dto.setImageBase64(imageViewSupport.inlineBase64(post.getImageHash()));
         }
 
         if (post.getHashtags() != null) {
@@ -56,7 +65,7 @@ public class PostViewBuilder {
         if (post.getComments() != null) {
             dto.setComments(post.getComments().stream()
                     .sorted(Comparator.comparing(Comment::getCreatedAt).reversed())
-                    .map(CommentViewBuilder::generateDTOFromEntity)
+                    .map(commentViewBuilder::generateDTOFromEntity)
                     .collect(Collectors.toCollection(HashSet::new)));
         } else {
             dto.setComments(new HashSet<>());
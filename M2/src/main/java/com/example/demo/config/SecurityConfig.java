@@ -24,9 +24,13 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers(HttpMethod.PUT, "/api/m2/posts/*/update-reaction-count").permitAll()
                         .requestMatchers(HttpMethod.PUT, "/api/m2/comments/*/update-reaction-count").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/m2/reaction-counts/batch").permitAll()
 
+                        .requestMatchers(HttpMethod.GET, "/api/m2/posts/*/image").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/m2/comments/*/image").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/m2/posts/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/m2/comments/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/m2/hashtags/**").permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/api/m2/posts/admin/**").authenticated()
                         .requestMatchers("/api/m2/comments/admin/**").authenticated()
@@ -1,7 +1,14 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.ImageDTO;
 import com.example.demo.errorhandler.UserException;
 import jakarta.servlet.http.HttpServletRequest; // Import HttpServletRequest
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
 
 public abstract class BaseController {
 
@@ -24,4 +31,23 @@ public abstract class BaseController {
         return (Long) userIdAttribute;
     }
 
-}
\ No newline at end of file
+    /**
+     * Raw image response. The ETag is the content hash, so conditional GETs get a 304, and Spring
+     * serves {@code Range} requests from the {@link Resource} body as 206 partial content.
+     * Content-Length is left to the message converter so that it matches the returned range.
+     */
+    protected ResponseEntity<Resource> imageResponse(ImageDTO image, long maxAgeSeconds) {
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(image.getMimeType());
+        } catch (Exception e) {
+            mediaType = MediaType.APPLICATION_OCTET_STREAM;
+        }
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .eTag(image.getHash())
+                .cacheControl(CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+                .header("X-Content-Type-Options", "nosniff")
+                .body(image.getContent());
+    }
+}
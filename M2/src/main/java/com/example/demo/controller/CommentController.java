@@ -9,6 +9,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -23,10 +25,13 @@ public class CommentController extends BaseController {
 
     private static final Logger log = LoggerFactory.getLogger(CommentController.class);
     private final CommentService commentService;
+    private final long imageCacheMaxAgeSeconds;
 
-    public CommentController(CommentService commentService) {
+    public CommentController(CommentService commentService,
+                             @Value("${m2.images.cache-max-age-seconds:86400}") long imageCacheMaxAgeSeconds) {
         super();
         this.commentService = commentService;
+        this.imageCacheMaxAgeSeconds = imageCacheMaxAgeSeconds;
     }
 
     private ResponseEntity<?> handleUserException(UserException e, String action) {
@@ -75,6 +80,16 @@ public class CommentController extends BaseController {
         }
     }
 
+    @GetMapping("/{commentId}/image")
+    public ResponseEntity<Resource> getCommentImage(@PathVariable Long commentId) {
+        try {
+            return imageResponse(commentService.getCommentImage(commentId), imageCacheMaxAgeSeconds);
+        } catch (UserException e) {
+            log.warn("No image served for comment {}: {}", commentId, e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @DeleteMapping("/{commentId}")
     public ResponseEntity<?> deleteComment(
             @PathVariable Long commentId,
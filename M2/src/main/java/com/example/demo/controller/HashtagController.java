@@ -0,0 +1,37 @@
+package com.example.demo.controller;
+
+import com.example.demo.errorhandler.UserException;
+import com.example.demo.service.TrendingHashtagService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/m2/hashtags")
+public class HashtagController extends BaseController {
+
+    private static final Logger log = LoggerFactory.getLogger(HashtagController.class);
+    private final TrendingHashtagService trendingHashtagService;
+
+    public HashtagController(TrendingHashtagService trendingHashtagService) {
+        super();
+        this.trendingHashtagService = trendingHashtagService;
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrending(
+            @RequestParam(required = false, defaultValue = "1h") String window,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(trendingHashtagService.getTrending(window, limit));
+        } catch (UserException e) {
+            log.error("Rejected trending hashtags request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+}
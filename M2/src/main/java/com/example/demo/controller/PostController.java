@@ -2,6 +2,7 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.ReactionCountUpdateDTO;
 import com.example.demo.dto.postdto.PostDTO;
+import com.example.demo.dto.postdto.PostPageDTO;
 import com.example.demo.dto.postdto.PostViewDTO;
 import com.example.demo.errorhandler.UserException;
 import com.example.demo.service.PostService;
@@ -9,6 +10,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -22,11 +25,15 @@ import java.util.List;
 public class PostController extends BaseController {
 
     private static final Logger log = LoggerFactory.getLogger(PostController.class);
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final PostService postService;
+    private final long imageCacheMaxAgeSeconds;
 
-    public PostController(PostService postService) {
+    public PostController(PostService postService,
+                          @Value("${m2.images.cache-max-age-seconds:86400}") long imageCacheMaxAgeSeconds) {
         super();
         this.postService = postService;
+        this.imageCacheMaxAgeSeconds = imageCacheMaxAgeSeconds;
     }
 
     private ResponseEntity<?> handleUserException(UserException e, String actionContext) {
@@ -75,6 +82,16 @@ public class PostController extends BaseController {
         }
     }
 
+    @GetMapping("/{postId}/image")
+    public ResponseEntity<Resource> getPostImage(@PathVariable Long postId) {
+        try {
+            return imageResponse(postService.getPostImage(postId), imageCacheMaxAgeSeconds);
+        } catch (UserException e) {
+            log.warn("No image served for post {}: {}", postId, e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @DeleteMapping("/{postId}")
     public ResponseEntity<?> deletePost(
             @PathVariable Long postId,
@@ -110,9 +127,14 @@ public class PostController extends BaseController {
     }
 
     @GetMapping
-    public ResponseEntity<List<PostViewDTO>> getAllPosts() {
-        List<PostViewDTO> posts = postService.getAllPosts();
-        return ResponseEntity.ok(posts);
+    public ResponseEntity<?> getAllPosts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return pageResponse(postService.getAllPosts(cursor, limit));
+        } catch (UserException e) {
+            return handleUserException(e, "listing posts");
+        }
     }
 
     @GetMapping("/by-reaction-count")
@@ -141,13 +163,14 @@ public class PostController extends BaseController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getPostsByUser(@PathVariable Long userId) {
+    public ResponseEntity<?> getPostsByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<PostViewDTO> posts = postService.getPostsByUser(userId);
-            return ResponseEntity.ok(posts);
+            return pageResponse(postService.getPostsByUser(userId, cursor, limit));
         } catch (UserException e) {
-            log.warn("Could not get posts for user {}: {}", userId, e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+            return handleUserException(e, "listing posts for user " + userId);
         } catch (Exception e) {
             log.error("Error retrieving posts for user {}: {}", userId, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error retrieving posts.");
@@ -155,26 +178,53 @@ public class PostController extends BaseController {
     }
 
     @GetMapping("/hashtag/{hashtag}")
-    public ResponseEntity<List<PostViewDTO>> getPostsByHashtag(
-            @PathVariable String hashtag) {
-        List<PostViewDTO> posts = postService.getPostsByHashtag(hashtag);
-        return ResponseEntity.ok(posts);
+    public ResponseEntity<?> getPostsByHashtag(
+            @PathVariable String hashtag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return pageResponse(postService.getPostsByHashtag(hashtag, cursor, limit));
+        } catch (UserException e) {
+            return handleUserException(e, "listing posts for hashtag " + hashtag);
+        }
     }
 
     @GetMapping("/hashtags")
-    public ResponseEntity<List<PostViewDTO>> getPostsByHashtags(
-            @RequestParam(required = false) List<String> tags) {
-        if (tags == null || tags.isEmpty()) {
-            return ResponseEntity.ok(List.of());
+    public ResponseEntity<?> getPostsByHashtags(
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(required = false, defaultValue = "any") String mode,
+            @RequestParam(required = false) List<String> exclude,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return pageResponse(postService.getPostsByHashtags(tags, mode, exclude, cursor, limit));
+        } catch (UserException e) {
+            return handleUserException(e, "listing posts for hashtags " + tags);
         }
-        List<PostViewDTO> posts = postService.getPostsByHashtags(tags);
-        return ResponseEntity.ok(posts);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<PostViewDTO>> searchPostsByText(
-            @RequestParam String query) {
-        List<PostViewDTO> posts = postService.searchPostsByText(query);
-        return ResponseEntity.ok(posts);
+    public ResponseEntity<?> searchPostsByText(
+            @RequestParam String query,
+            @RequestParam(required = false, defaultValue = "recent") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return pageResponse(postService.searchPostsByText(query, sort, cursor, limit));
+        } catch (UserException e) {
+            return handleUserException(e, "searching posts");
+        }
+    }
+
+    /**
+     * The body stays a plain list for existing clients; the keyset cursor for the next page
+     * travels in the {@value #NEXT_CURSOR_HEADER} header and is absent on the last page.
+     */
+    private ResponseEntity<List<PostViewDTO>> pageResponse(PostPageDTO page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getPosts());
     }
 }
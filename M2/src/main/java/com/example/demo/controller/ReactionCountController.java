@@ -0,0 +1,46 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ReactionCountBatchEntryDTO;
+import com.example.demo.dto.ReactionCountBatchResultDTO;
+import com.example.demo.errorhandler.UserException;
+import com.example.demo.service.ReactionCountBatchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Internal endpoint for M3: applies a batch of post and comment reaction counts in one call.
+ */
+@RestController
+@RequestMapping("/api/m2/reaction-counts")
+public class ReactionCountController extends BaseController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactionCountController.class);
+    private final ReactionCountBatchService reactionCountBatchService;
+
+    public ReactionCountController(ReactionCountBatchService reactionCountBatchService) {
+        super();
+        this.reactionCountBatchService = reactionCountBatchService;
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(@RequestBody List<ReactionCountBatchEntryDTO> entries) {
+        try {
+            ReactionCountBatchResultDTO result = reactionCountBatchService.applyBatch(entries);
+            return ResponseEntity.ok(result);
+        } catch (UserException e) {
+            log.error("Rejected reaction count batch: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error applying reaction count batch: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
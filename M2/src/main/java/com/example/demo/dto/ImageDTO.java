@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.core.io.Resource;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageDTO {
+    private String hash;
+    private String mimeType;
+    private Resource content;
+}
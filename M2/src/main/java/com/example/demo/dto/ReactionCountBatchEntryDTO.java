@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.TargetType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a batch count update. Exactly one of {@code count} (new absolute count) or
+ * {@code delta} (change to apply) must be set. For posts both refer to direct reactions only.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReactionCountBatchEntryDTO {
+    private TargetType targetType;
+    private Long targetId;
+    private Integer count;
+    private Integer delta;
+}
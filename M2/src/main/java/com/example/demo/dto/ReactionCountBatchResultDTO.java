@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReactionCountBatchResultDTO {
+    private int applied;
+    private List<Long> missingPostIds = new ArrayList<>();
+    private List<Long> missingCommentIds = new ArrayList<>();
+}
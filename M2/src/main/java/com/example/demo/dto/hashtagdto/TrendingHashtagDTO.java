@@ -0,0 +1,16 @@
+package com.example.demo.dto.hashtagdto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingHashtagDTO {
+    private String name;
+    /** Times the tag was attached to a post inside the window. */
+    private long uses;
+    /** {@link #uses} weighted by recency; the ranking key. */
+    private double score;
+}
@@ -0,0 +1,15 @@
+package com.example.demo.dto.postdto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostPageDTO {
+    private List<PostViewDTO> posts;
+    private String nextCursor;
+}
@@ -0,0 +1,46 @@
+package com.example.demo.dto.postdto;
+
+import com.example.demo.errorhandler.UserException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a ranked listing whose order is not (createdAt, id), such as search results
+ * sorted by reactions: the number of results already returned. Opaque to clients like
+ * {@link FeedCursor}.
+ */
+@Data
+@AllArgsConstructor
+public class RankedCursor {
+
+    private static final String PREFIX = "rank|";
+
+    private int offset;
+
+    public String encode() {
+        String raw = PREFIX + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RankedCursor decode(String cursor) throws UserException {
+        if (cursor == null || cursor.isBlank()) {
+            return new RankedCursor(0);
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException(raw);
+            }
+            int offset = Integer.parseInt(raw.substring(PREFIX.length()));
+            if (offset < 0) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new RankedCursor(offset);
+        } catch (RuntimeException e) {
+            throw new UserException("Invalid cursor: " + cursor);
+        }
+    }
+}
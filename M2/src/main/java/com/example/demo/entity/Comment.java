@@ -1,5 +1,6 @@
 package com.example.demo.entity;
 
+import com.example.demo.storage.StoredBlob;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -21,9 +22,14 @@ public class Comment {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
-    @Lob
-    @Column(columnDefinition="MEDIUMBLOB")
-    private byte[] image;
+    // Image bytes live in the BlobStore; the row only keeps the content hash and metadata.
+    @Column(length = 64)
+    private String imageHash;
+
+    private Long imageSize;
+
+    @Column(length = 100)
+    private String imageMimeType;
 
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -54,4 +60,20 @@ public class Comment {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
-}
\ No newline at end of file
+
+    public void attachImage(StoredBlob blob) {
+        this.imageHash = blob.getHash();
+        this.imageSize = blob.getSize();
+        this.imageMimeType = blob.getMimeType();
+    }
+
+    public void clearImage() {
+        this.imageHash = null;
+        this.imageSize = null;
+        this.imageMimeType = null;
+    }
+
+    public boolean hasImage() {
+        return imageHash != null;
+    }
+}
@@ -7,12 +7,15 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 
 @Entity
 @Data
 @NoArgsConstructor
-@Table(name = "hashtags")
+@Table(name = "hashtags", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_hashtags_normalized_name", columnNames = "normalizedName")
+})
 public class Hashtag {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,6 +24,11 @@ public class Hashtag {
     @Column(unique = true, nullable = false, length = 100)
     private String name;
 
+    // Lowercased name, the key tags are looked up by. Nullable only so the column can be added
+    // to existing tables; HashtagResolver backfills it on startup.
+    @Column(length = 100)
+    private String normalizedName;
+
     @ManyToMany(mappedBy = "hashtags", fetch = FetchType.LAZY)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
@@ -28,6 +36,17 @@ public class Hashtag {
 
     public Hashtag(String name) {
         this.name = name;
+        this.normalizedName = normalize(name);
+    }
+
+    public static String normalize(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        normalizedName = normalize(name);
     }
 
     @Override
@@ -1,18 +1,23 @@
 package com.example.demo.entity;
 
+import com.example.demo.storage.StoredBlob;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_created_at_id", columnList = "createdAt, id"),
+        @Index(name = "idx_posts_user_created_at_id", columnList = "user_id, createdAt, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,9 +35,14 @@ public class Post {
     @Column(columnDefinition = "TEXT")
     private String content;
 
-    @Lob
-    @Column(columnDefinition="LONGBLOB")
-    private byte[] image;
+    // Image bytes live in the BlobStore; the row only keeps the content hash and metadata.
+    @Column(length = 64)
+    private String imageHash;
+
+    private Long imageSize;
+
+    @Column(length = 100)
+    private String imageMimeType;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -43,9 +53,14 @@ public class Post {
 
     private LocalDateTime updatedAt;
 
+    // Aggregate shown in the feed: directReactionCount plus the reactionCount of every comment.
     @Column(nullable = false, columnDefinition = "INT DEFAULT 0")
     private int reactionCount = 0;
 
+    // Reactions on the post itself, as last reported by M3. Nullable only for rows created before
+    // the column existed; ReactionCountReconciler backfills those at startup.
+    private Integer directReactionCount = 0;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -56,7 +71,10 @@ public class Post {
         updatedAt = LocalDateTime.now();
     }
 
+    // Collections are loaded in batches for every post in the persistence context, so rendering a
+    // feed page costs one query per collection instead of one per post.
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private Set<Comment> comments = new HashSet<>();
@@ -67,6 +85,7 @@ public class Post {
             joinColumns = @JoinColumn(name = "post_id"),
             inverseJoinColumns = @JoinColumn(name = "hashtag_id")
     )
+    @BatchSize(size = 100)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private Set<Hashtag> hashtags = new HashSet<>();
@@ -96,4 +115,20 @@ public class Post {
             removeHashtag(tag);
         }
     }
-}
\ No newline at end of file
+
+    public void attachImage(StoredBlob blob) {
+        this.imageHash = blob.getHash();
+        this.imageSize = blob.getSize();
+        this.imageMimeType = blob.getMimeType();
+    }
+
+    public void clearImage() {
+        this.imageHash = null;
+        this.imageSize = null;
+        this.imageMimeType = null;
+    }
+
+    public boolean hasImage() {
+        return imageHash != null;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.demo.entity;
+
+public enum TargetType {
+    POST,
+    COMMENT
+}
@@ -76,13 +76,19 @@ public class JwtInterceptor implements HandlerInterceptor {
             logger.info("M2 JwtInterceptor - Allowing internal PUT request to update-reaction-count path: {}", path);
             return true;
         }
+        if (method.equalsIgnoreCase("POST") && path.equals("/api/m2/reaction-counts/batch")) {
+            logger.info("M2 JwtInterceptor - Allowing internal POST request to reaction count batch path: {}", path);
+            return true;
+        }
         if (!path.startsWith("/api/")) {
             logger.trace("M2 JwtInterceptor - Skipping JWT validation for non-API path: {}", path);
             return true;
         }
 
         boolean isPublicGetRequest = method.equalsIgnoreCase("GET") &&
-                (path.startsWith("/api/posts") || path.startsWith("/api/comments"));
+                (path.startsWith("/api/posts") || path.startsWith("/api/comments")
+                        || path.startsWith("/api/m2/hashtags")
+                        || path.matches("/api/m2/(posts|comments)/\\d+/image"));
 
         String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         logger.debug("M2 JwtInterceptor - Incoming Authorization header: {}", authHeader);
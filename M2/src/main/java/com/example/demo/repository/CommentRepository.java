@@ -1,9 +1,15 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Comment;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -15,4 +21,15 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     void deleteByIdAndUserId(Long id, Long userId);
 
     boolean existsByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Locks the comment row so its old reactionCount can be turned into a delta for the parent post.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Comment c WHERE c.id = :id")
+    Optional<Comment> findByIdForUpdate(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Comment c SET c.reactionCount = :reactionCount WHERE c.id = :id")
+    int updateReactionCount(@Param("id") Long id, @Param("reactionCount") int reactionCount);
 }
\ No newline at end of file
@@ -1,12 +1,23 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Hashtag;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface HashtagRepository extends JpaRepository<Hashtag, Long> {
-    Optional<Hashtag> findByNameIgnoreCase(String name);
+
+    List<Hashtag> findAllByNormalizedNameIn(Collection<String> normalizedNames);
+
+    // Locking read: sees tags committed by other transactions after this one's snapshot was taken.
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT h FROM Hashtag h WHERE h.normalizedName IN :normalizedNames")
+    List<Hashtag> findAllByNormalizedNameInForShare(@Param("normalizedNames") Collection<String> normalizedNames);
 }
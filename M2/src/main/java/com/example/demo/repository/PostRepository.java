@@ -2,32 +2,52 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.Post;
 import com.example.demo.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
 
-    List<Post> findByUserIdOrderByCreatedAtDesc(Long userId);
-
-    List<Post> findAllByOrderByCreatedAtDesc();
-
     List<Post> findAllByOrderByReactionCountDescCreatedAtDesc();
 
     void deleteByIdAndUserId(Long id, Long userId);
 
     boolean existsByIdAndUserId(Long id, Long userId);
 
-    List<Post> findAllByHashtags_NameIgnoreCaseOrderByCreatedAtDesc(String hashtag);
+    // reactionCount is assigned before directReactionCount: MySQL evaluates SET clauses left to
+    // right, so the delta must be computed from the old direct count.
+    @Modifying
+    @Query("UPDATE Post p SET p.reactionCount = p.reactionCount + (:directCount - p.directReactionCount), " +
+            "p.directReactionCount = :directCount WHERE p.id = :postId")
+    int updateDirectReactionCount(@Param("postId") Long postId, @Param("directCount") int directCount);
 
-    @Query("SELECT DISTINCT p FROM Post p JOIN p.hashtags h WHERE LOWER(h.name) IN :hashtags ORDER BY p.createdAt DESC")
-    List<Post> findAllByHashtags_NameInIgnoreCaseOrderByCreatedAtDesc(@Param("hashtags") List<String> hashtags);
+    @Modifying
+    @Query("UPDATE Post p SET p.reactionCount = p.reactionCount + :delta WHERE p.id = :postId")
+    int addToReactionCount(@Param("postId") Long postId, @Param("delta") int delta);
 
     List<Post> findAllByUserOrderByCreatedAtDesc(User user);
 
-    List<Post> findByContentContainingIgnoreCaseOrderByCreatedAtDesc(String text);
-}
\ No newline at end of file
+
+    @Query("SELECT p FROM Post p WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findFeedPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE p.user.id = :userId " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findUserPage(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                            @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE LOWER(p.content) LIKE :pattern ESCAPE '!' " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findContentPage(@Param("pattern") String pattern, @Param("createdAt") LocalDateTime createdAt,
+                               @Param("id") Long id, Pageable pageable);
+}
@@ -0,0 +1,172 @@
+package com.example.demo.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hashtag to post id posting lists held as {@link PostIdBitmap}s, answering tag listings with
+ * AND / OR / AND NOT from memory, newest post first. Filled by {@link HashtagIndexLoader}
+ * before the application serves requests and kept current by {@code PostService}.
+ */
+@Component
+public class HashtagIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostIdBitmap> postsByTag = new HashMap<>();
+    private final Map<Long, Set<String>> tagsByPost = new HashMap<>();
+
+    /**
+     * The lookup key for a tag: trimmed, without leading {@code #}, lowercased. Empty if nothing is left.
+     */
+    public static String normalize(String tag) {
+        if (tag == null) {
+            return "";
+        }
+        return tag.trim().replaceAll("^#+", "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Replaces the tags of {@code postId}; an empty collection removes the post from the index.
+     */
+    public void setTags(long postId, Collection<String> tags) {
+        Set<String> normalized = normalizeAll(tags);
+        lock.writeLock().lock();
+        try {
+            Set<String> previous = tagsByPost.remove(postId);
+            if (previous != null) {
+                unlink(postId, previous);
+            }
+            if (!normalized.isEmpty()) {
+                tagsByPost.put(postId, normalized);
+                for (String tag : normalized) {
+                    postsByTag.computeIfAbsent(tag, t -> new PostIdBitmap()).add(postId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds one tag to a post, for bulk loading.
+     */
+    void addTag(long postId, String tag) {
+        String normalized = normalize(tag);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            tagsByPost.computeIfAbsent(postId, id -> new LinkedHashSet<>()).add(normalized);
+            postsByTag.computeIfAbsent(normalized, t -> new PostIdBitmap()).add(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long postId) {
+        setTags(postId, List.of());
+    }
+
+    /**
+     * Ids of posts below {@code beforeId} matching {@code tags} under {@code match} and carrying
+     * none of {@code excluded}, newest first, at most {@code limit}.
+     */
+    public List<Long> find(Collection<String> tags, HashtagMatch match, Collection<String> excluded,
+                           long beforeId, int limit) {
+        Set<String> wanted = normalizeAll(tags);
+        if (wanted.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            PostIdBitmap result = match == HashtagMatch.ALL ? intersect(wanted) : union(wanted);
+            if (result == null) {
+                return List.of();
+            }
+            for (String tag : normalizeAll(excluded)) {
+                PostIdBitmap unwanted = postsByTag.get(tag);
+                if (unwanted != null) {
+                    result = result.andNot(unwanted);
+                }
+            }
+            return result.descendingBelow(beforeId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long countPosts(String tag) {
+        lock.readLock().lock();
+        try {
+            PostIdBitmap posts = postsByTag.get(normalize(tag));
+            return posts == null ? 0 : posts.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private PostIdBitmap intersect(Set<String> tags) {
+        List<PostIdBitmap> bitmaps = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            PostIdBitmap posts = postsByTag.get(tag);
+            if (posts == null) {
+                return null;
+            }
+            bitmaps.add(posts);
+        }
+        // Smallest first keeps every intermediate result as small as possible.
+        bitmaps.sort(Comparator.comparingLong(PostIdBitmap::cardinality));
+        PostIdBitmap result = bitmaps.get(0);
+        for (int i = 1; i < bitmaps.size() && !result.isEmpty(); i++) {
+            result = result.and(bitmaps.get(i));
+        }
+        return result;
+    }
+
+    private PostIdBitmap union(Set<String> tags) {
+        PostIdBitmap result = null;
+        for (String tag : tags) {
+            PostIdBitmap posts = postsByTag.get(tag);
+            if (posts != null) {
+                result = result == null ? posts : result.or(posts);
+            }
+        }
+        return result;
+    }
+
+    private void unlink(long postId, Set<String> tags) {
+        for (String tag : tags) {
+            PostIdBitmap posts = postsByTag.get(tag);
+            if (posts != null) {
+                posts.remove(postId);
+                if (posts.isEmpty()) {
+                    postsByTag.remove(tag);
+                }
+            }
+        }
+    }
+
+    private static Set<String> normalizeAll(Collection<String> tags) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                String key = normalize(tag);
+                if (!key.isEmpty()) {
+                    normalized.add(key);
+                }
+            }
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.search;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the {@link HashtagIndex} from {@code post_hashtags} during startup, before the web
+ * server accepts requests. Rows are read in post id ranges so a post's tags always arrive in
+ * the same batch and no batch holds more than {@code range-size} posts; gaps in the ids are
+ * skipped. Depends on the entity manager factory so the schema exists before the first read.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class HashtagIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(HashtagIndexLoader.class);
+
+    private static final String SELECT_TAGS =
+            "SELECT ph.post_id, h.name FROM post_hashtags ph JOIN hashtags h ON h.id = ph.hashtag_id " +
+            "WHERE ph.post_id > ? AND ph.post_id <= ?";
+    private static final String SELECT_NEXT_POST = "SELECT MIN(post_id) FROM post_hashtags WHERE post_id > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HashtagIndex index;
+    private final int rangeSize;
+
+    public HashtagIndexLoader(JdbcTemplate jdbcTemplate,
+                              HashtagIndex index,
+                              @Value("${m2.hashtags.index.rebuild-range-size:10000}") int rangeSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.index = index;
+        this.rangeSize = rangeSize;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        int[] rows = {0};
+        Long next = jdbcTemplate.queryForObject(SELECT_NEXT_POST, Long.class, 0L);
+        while (next != null) {
+            long from = next - 1;
+            jdbcTemplate.query(SELECT_TAGS, rs -> {
+                index.addTag(rs.getLong("post_id"), rs.getString("name"));
+                rows[0]++;
+            }, from, from + rangeSize);
+            next = jdbcTemplate.queryForObject(SELECT_NEXT_POST, Long.class, from + rangeSize);
+        }
+        log.info("Hashtag index built: {} post tags in {} ms", rows[0], System.currentTimeMillis() - started);
+    }
+}
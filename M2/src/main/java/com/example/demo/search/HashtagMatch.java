@@ -0,0 +1,24 @@
+package com.example.demo.search;
+
+import com.example.demo.errorhandler.UserException;
+
+import java.util.Locale;
+
+/**
+ * How the tags of a hashtag query combine: {@code all} requires every tag, {@code any} at least one.
+ */
+public enum HashtagMatch {
+    ALL,
+    ANY;
+
+    public static HashtagMatch parse(String value) throws UserException {
+        if (value == null || value.isBlank()) {
+            return ANY;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new UserException("Unsupported mode: " + value);
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compressed set of post ids in the style of a roaring bitmap. An id is split into a high part
+ * ({@code id >>> 16}) naming a container and a 16-bit low part stored in it. A container is a
+ * sorted char array while it holds at most {@value #ARRAY_MAX} values and a 65536-bit bitmap
+ * beyond that, so a rare tag costs two bytes per post and a popular one at most a bit per id.
+ * AND, OR and AND NOT work container by container and skip whole id ranges one side lacks.
+ *
+ * <p>Not thread-safe; {@link HashtagIndex} guards it. Results of set operations may share
+ * containers with their inputs and must not outlive the lock they were computed under.
+ */
+final class PostIdBitmap {
+
+    static final int ARRAY_MAX = 4096;
+
+    private long[] keys = new long[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    void add(long id) {
+        long key = id >>> 16;
+        int index = indexOf(key);
+        if (index >= 0) {
+            containers[index] = containers[index].add((char) id);
+        } else {
+            insertAt(-index - 1, key, new ArrayContainer().add((char) id));
+        }
+    }
+
+    void remove(long id) {
+        int index = indexOf(id >>> 16);
+        if (index < 0) {
+            return;
+        }
+        Container container = containers[index].remove((char) id);
+        if (container.cardinality() == 0) {
+            removeAt(index);
+        } else {
+            containers[index] = container;
+        }
+    }
+
+    boolean contains(long id) {
+        int index = indexOf(id >>> 16);
+        return index >= 0 && containers[index].contains((char) id);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    PostIdBitmap and(PostIdBitmap other) {
+        PostIdBitmap result = new PostIdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendIfNotEmpty(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    PostIdBitmap or(PostIdBitmap other) {
+        PostIdBitmap result = new PostIdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.appendIfNotEmpty(keys[i], containers[i++]);
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.appendIfNotEmpty(other.keys[j], other.containers[j++]);
+            } else {
+                result.appendIfNotEmpty(keys[i], containers[i++].or(other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    PostIdBitmap andNot(PostIdBitmap other) {
+        PostIdBitmap result = new PostIdBitmap();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            boolean overlaps = j < other.size && other.keys[j] == keys[i];
+            result.appendIfNotEmpty(keys[i], overlaps ? containers[i].andNot(other.containers[j]) : containers[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Up to {@code limit} ids strictly below {@code beforeId}, largest (newest) first.
+     */
+    List<Long> descendingBelow(long beforeId, int limit) {
+        List<Long> result = new ArrayList<>(Math.min(limit, 64));
+        if (beforeId <= 0 || limit <= 0) {
+            return result;
+        }
+        long last = beforeId - 1;
+        int index = indexOf(last >>> 16);
+        int upper = (int) (last & 0xFFFF);
+        if (index < 0) {
+            index = -index - 2;
+            upper = 0xFFFF;
+        }
+        for (; index >= 0 && result.size() < limit; index--, upper = 0xFFFF) {
+            Container container = containers[index];
+            long high = keys[index] << 16;
+            int value = container.previous(upper);
+            while (value >= 0 && result.size() < limit) {
+                result.add(high | value);
+                value = value == 0 ? -1 : container.previous(value - 1);
+            }
+        }
+        return result;
+    }
+
+    private int indexOf(long key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void appendIfNotEmpty(long key, Container container) {
+        if (container.cardinality() > 0) {
+            insertAt(size, key, container);
+        }
+    }
+
+    private void insertAt(int index, long key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+
+    /**
+     * The low 16 bits of the ids sharing one high part. Mutators return the container to keep,
+     * which changes representation when it crosses {@link #ARRAY_MAX}; set operations never
+     * modify their inputs.
+     */
+    private abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        /**
+         * Largest value not above {@code upper}, or -1.
+         */
+        abstract int previous(int upper);
+
+        abstract BitmapContainer toBitmap();
+
+        Container and(Container other) {
+            if (this instanceof ArrayContainer array) {
+                return array.filter(other, true);
+            }
+            if (other instanceof ArrayContainer array) {
+                return array.filter(this, true);
+            }
+            long[] words = ((BitmapContainer) this).words.clone();
+            long[] otherWords = ((BitmapContainer) other).words;
+            for (int i = 0; i < words.length; i++) {
+                words[i] &= otherWords[i];
+            }
+            return new BitmapContainer(words).optimize();
+        }
+
+        Container or(Container other) {
+            if (this instanceof ArrayContainer a && other instanceof ArrayContainer b
+                    && a.cardinality + b.cardinality <= ARRAY_MAX) {
+                return a.merge(b);
+            }
+            long[] words = toBitmap().words.clone();
+            long[] otherWords = other.toBitmap().words;
+            for (int i = 0; i < words.length; i++) {
+                words[i] |= otherWords[i];
+            }
+            return new BitmapContainer(words);
+        }
+
+        Container andNot(Container other) {
+            if (this instanceof ArrayContainer array) {
+                return array.filter(other, false);
+            }
+            long[] words = ((BitmapContainer) this).words.clone();
+            long[] otherWords = other.toBitmap().words;
+            for (int i = 0; i < words.length; i++) {
+                words[i] &= ~otherWords[i];
+            }
+            return new BitmapContainer(words).optimize();
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int position = Arrays.binarySearch(values, 0, cardinality, value);
+            if (position >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            int insertAt = -position - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.max(4, Math.min(ARRAY_MAX, cardinality * 2)));
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, cardinality - insertAt);
+            values[insertAt] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int position = Arrays.binarySearch(values, 0, cardinality, value);
+            if (position >= 0) {
+                System.arraycopy(values, position + 1, values, position, cardinality - position - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int previous(int upper) {
+            int position = Arrays.binarySearch(values, 0, cardinality, (char) upper);
+            if (position >= 0) {
+                return values[position];
+            }
+            int insertAt = -position - 1;
+            return insertAt > 0 ? values[insertAt - 1] : -1;
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            long[] words = new long[1024];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return new BitmapContainer(words, cardinality);
+        }
+
+        ArrayContainer filter(Container other, boolean keepContained) {
+            char[] kept = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i]) == keepContained) {
+                    kept[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(kept, count);
+        }
+
+        ArrayContainer merge(ArrayContainer other) {
+            char[] merged = new char[cardinality + other.cardinality];
+            int i = 0;
+            int j = 0;
+            int count = 0;
+            while (i < cardinality || j < other.cardinality) {
+                if (j == other.cardinality || (i < cardinality && values[i] < other.values[j])) {
+                    merged[count++] = values[i++];
+                } else if (i == cardinality || values[i] > other.values[j]) {
+                    merged[count++] = other.values[j++];
+                } else {
+                    merged[count++] = values[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(merged, count);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words) {
+            this(words, countBits(words));
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) != 0) {
+                words[value >>> 6] &= ~bit;
+                cardinality--;
+            }
+            return optimize();
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int previous(int upper) {
+            int index = upper >>> 6;
+            long word = words[index] & (-1L >>> (63 - (upper & 63)));
+            while (true) {
+                if (word != 0) {
+                    return index * 64 + 63 - Long.numberOfLeadingZeros(word);
+                }
+                if (--index < 0) {
+                    return -1;
+                }
+                word = words[index];
+            }
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            return this;
+        }
+
+        Container optimize() {
+            if (cardinality > ARRAY_MAX) {
+                return this;
+            }
+            char[] values = new char[Math.max(cardinality, 4)];
+            int count = 0;
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[count++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+
+        private static int countBits(long[] words) {
+            int count = 0;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package com.example.demo.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over post content: one {@link PostingList} of post ids per term,
+ * plus the analyzed terms of every post for phrase and prefix checks. Searches walk the
+ * shortest posting list of the query newest-first and probe the others by binary search, so a
+ * page costs a few lookups per candidate instead of a table scan.
+ *
+ * <p>The index is rebuilt from the database on startup by {@link PostSearchIndexLoader} and
+ * kept current by {@code PostService}, which applies changes through {@link AfterCommit}.
+ * Until the rebuild finishes {@link #isReady()} is false and callers fall back to SQL.
+ */
+@Component
+public class PostSearchIndex {
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Long, IndexedPost> posts = new HashMap<>();
+    private final int maxPrefixExpansions;
+    private final int maxRankedResults;
+    private final RelevanceWeights weights;
+    private long totalTerms;
+    private volatile boolean ready;
+
+    public PostSearchIndex(@Value("${m2.search.max-prefix-expansions:200}") int maxPrefixExpansions,
+                           @Value("${m2.search.max-ranked-results:1000}") int maxRankedResults,
+                           RelevanceWeights weights) {
+        this.maxPrefixExpansions = maxPrefixExpansions;
+        this.maxRankedResults = maxRankedResults;
+        this.weights = weights;
+    }
+
+    public void index(long postId, String content, LocalDateTime createdAt, int reactionCount) {
+        index(postId, content, createdAt != null ? createdAt.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L, reactionCount);
+    }
+
+    public void index(long postId, String content, long createdAtEpochMillis, int reactionCount) {
+        String[] terms = TextAnalyzer.analyze(content).toArray(String[]::new);
+        IndexedPost post = new IndexedPost(terms, createdAtEpochMillis, reactionCount);
+        lock.writeLock().lock();
+        try {
+            IndexedPost previous = posts.put(postId, post);
+            if (previous != null) {
+                unlink(postId, previous);
+            }
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String term : terms) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new PostingList()).add(postId, frequency));
+            totalTerms += terms.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long postId) {
+        lock.writeLock().lock();
+        try {
+            IndexedPost previous = posts.remove(postId);
+            if (previous != null) {
+                unlink(postId, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateReactionCount(long postId, int reactionCount) {
+        lock.readLock().lock();
+        try {
+            IndexedPost post = posts.get(postId);
+            if (post != null) {
+                post.reactionCount = reactionCount;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    void markReady() {
+        ready = true;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return posts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of matching posts below {@code beforeId}, newest first, at most {@code limit}.
+     */
+    public List<Long> searchRecent(String rawQuery, long beforeId, int limit) {
+        SearchQuery query = SearchQuery.parse(rawQuery);
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Candidates candidates = candidates(query);
+            List<Long> result = new ArrayList<>(Math.min(limit, 64));
+            if (candidates == null) {
+                return result;
+            }
+            for (int i = candidates.lastIndexBelow(beforeId); i >= 0 && result.size() < limit; i--) {
+                long id = candidates.get(i);
+                if (matches(id, query, candidates.requiredLists)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of matching posts ranked by reaction count, newer first on ties, skipping the first
+     * {@code offset}. Only the top {@code m2.search.max-ranked-results} are reachable.
+     */
+    public List<Long> searchByReactions(String rawQuery, int offset, int limit) {
+        return rank(rawQuery, offset, limit, (query, candidates) -> (id, post) -> post.reactionCount);
+    }
+
+    /**
+     * Ids of matching posts ranked by BM25 over the query terms, boosted for recent and for
+     * well-reacted posts (see {@link RelevanceWeights}), skipping the first {@code offset}.
+     */
+    public List<Long> searchByRelevance(String rawQuery, int offset, int limit) {
+        return rank(rawQuery, offset, limit, this::relevanceScorer);
+    }
+
+    private List<Long> rank(String rawQuery, int offset, int limit, ScorerFactory scorerFactory) {
+        SearchQuery query = SearchQuery.parse(rawQuery);
+        int wanted = Math.min(offset + limit, maxRankedResults);
+        if (query.isEmpty() || offset >= wanted) {
+            return List.of();
+        }
+        TopK top = new TopK(wanted);
+        lock.readLock().lock();
+        try {
+            Candidates candidates = candidates(query);
+            if (candidates == null) {
+                return List.of();
+            }
+            Scorer scorer = scorerFactory.create(query, candidates);
+            for (int i = candidates.size() - 1; i >= 0; i--) {
+                long id = candidates.get(i);
+                if (matches(id, query, candidates.requiredLists)) {
+                    top.offer(id, scorer.score(id, posts.get(id)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        long[] ranked = top.drainBestFirst();
+        List<Long> page = new ArrayList<>(Math.max(0, ranked.length - offset));
+        for (int i = offset; i < ranked.length; i++) {
+            page.add(ranked[i]);
+        }
+        return page;
+    }
+
+    /**
+     * Precomputes everything that depends only on the query (IDFs, average post length, the
+     * clock) so scoring a candidate allocates nothing. A prefix term is scored as one term whose
+     * document frequency is that of its expansions together.
+     */
+    private Scorer relevanceScorer(SearchQuery query, Candidates candidates) {
+        int documents = posts.size();
+        double averageLength = documents == 0 ? 1.0 : Math.max(1.0, (double) totalTerms / documents);
+        List<PostingList> lists = candidates.requiredLists;
+        double[] idf = new double[lists.size()];
+        for (int i = 0; i < idf.length; i++) {
+            idf[i] = weights.idf(documents, lists.get(i).size());
+        }
+        String prefix = query.lastIsPrefix() && query.lastTerm().length() >= MIN_PREFIX_LENGTH ? query.lastTerm() : null;
+        double prefixIdf = 0;
+        if (prefix != null) {
+            int frequency = candidates.merged != null ? candidates.merged.length : 0;
+            if (candidates.merged == null) {
+                for (PostingList list : expand(prefix)) {
+                    frequency += list.size();
+                }
+            }
+            prefixIdf = weights.idf(documents, Math.min(frequency, documents));
+        }
+        long now = LocalDateTime.now().toInstant(ZoneOffset.UTC).toEpochMilli();
+        double prefixWeight = prefixIdf;
+
+        return (id, post) -> {
+            double lengthNorm = weights.lengthNorm(post.terms.length, averageLength);
+            double score = 0;
+            for (int i = 0; i < idf.length; i++) {
+                score += weights.termScore(idf[i], lists.get(i).frequencyOf(id), lengthNorm);
+            }
+            if (prefix != null) {
+                int frequency = 0;
+                for (String term : post.terms) {
+                    if (term.startsWith(prefix)) {
+                        frequency++;
+                    }
+                }
+                score += weights.termScore(prefixWeight, frequency, lengthNorm);
+            }
+            return score * weights.boost(now - post.createdAtEpochMillis, post.reactionCount);
+        };
+    }
+
+    /**
+     * The ids to walk for {@code query}: the shortest posting list of its whole terms, or the
+     * union of the lists its prefix expands to when it has no whole terms. Null when nothing
+     * can match.
+     */
+    private Candidates candidates(SearchQuery query) {
+        List<PostingList> required = new ArrayList<>();
+        for (String term : new HashSet<>(query.exactTerms())) {
+            PostingList list = postings.get(term);
+            if (list == null || list.isEmpty()) {
+                return null;
+            }
+            required.add(list);
+        }
+        required.sort(Comparator.comparingInt(PostingList::size));
+
+        if (query.lastIsPrefix() && query.lastTerm().length() < MIN_PREFIX_LENGTH) {
+            // One typed character would expand to most of the vocabulary; wait for more.
+            PostingList list = postings.get(query.lastTerm());
+            if (list == null || list.isEmpty()) {
+                return null;
+            }
+            required.add(0, list);
+            required.sort(Comparator.comparingInt(PostingList::size));
+            return new Candidates(required.get(0), null, required);
+        }
+        if (!required.isEmpty()) {
+            return new Candidates(required.get(0), null, required);
+        }
+
+        Collection<PostingList> expansions = expand(query.lastTerm());
+        if (expansions.isEmpty()) {
+            return null;
+        }
+        return new Candidates(null, union(expansions), required);
+    }
+
+    private Collection<PostingList> expand(String prefix) {
+        Collection<PostingList> all = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values();
+        if (all.size() <= maxPrefixExpansions) {
+            return all;
+        }
+        // Keep the most common expansions; rare ones matter least for a query still being typed.
+        List<PostingList> largest = new ArrayList<>(all);
+        largest.sort(Comparator.comparingInt(PostingList::size).reversed());
+        return largest.subList(0, maxPrefixExpansions);
+    }
+
+    private static long[] union(Collection<PostingList> lists) {
+        int total = 0;
+        for (PostingList list : lists) {
+            total += list.size();
+        }
+        long[] ids = new long[total];
+        int n = 0;
+        for (PostingList list : lists) {
+            for (int i = 0; i < list.size(); i++) {
+                ids[n++] = list.get(i);
+            }
+        }
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, distinct);
+    }
+
+    private boolean matches(long id, SearchQuery query, List<PostingList> required) {
+        for (PostingList list : required) {
+            if (!list.contains(id)) {
+                return false;
+            }
+        }
+        if (!query.phrase() && !query.lastIsPrefix()) {
+            return true;
+        }
+        IndexedPost post = posts.get(id);
+        if (post == null) {
+            return false;
+        }
+        if (query.phrase()) {
+            return containsPhrase(post.terms, query.terms(), query.lastIsPrefix());
+        }
+        String prefix = query.lastTerm();
+        for (String term : post.terms) {
+            if (term.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsPhrase(String[] terms, List<String> phrase, boolean lastIsPrefix) {
+        int length = phrase.size();
+        outer:
+        for (int start = 0; start + length <= terms.length; start++) {
+            for (int j = 0; j < length; j++) {
+                String term = terms[start + j];
+                String wanted = phrase.get(j);
+                boolean matched = lastIsPrefix && j == length - 1 ? term.startsWith(wanted) : term.equals(wanted);
+                if (!matched) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void unlink(long postId, IndexedPost post) {
+        totalTerms -= post.terms.length;
+        Set<String> seen = new HashSet<>();
+        for (String term : post.terms) {
+            if (seen.add(term)) {
+                PostingList list = postings.get(term);
+                if (list != null) {
+                    list.remove(postId);
+                    if (list.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Either a single posting list or a merged id array, both ascending.
+     */
+    private static final class Candidates {
+        private final PostingList list;
+        private final long[] merged;
+        private final List<PostingList> requiredLists;
+
+        Candidates(PostingList list, long[] merged, List<PostingList> requiredLists) {
+            this.list = list;
+            this.merged = merged;
+            this.requiredLists = requiredLists;
+        }
+
+        int size() {
+            return list != null ? list.size() : merged.length;
+        }
+
+        long get(int index) {
+            return list != null ? list.get(index) : merged[index];
+        }
+
+        int lastIndexBelow(long id) {
+            if (list != null) {
+                return list.lastIndexBelow(id);
+            }
+            int position = Arrays.binarySearch(merged, id);
+            return position >= 0 ? position - 1 : -position - 2;
+        }
+    }
+
+    private interface Scorer {
+        double score(long id, IndexedPost post);
+    }
+
+    private interface ScorerFactory {
+        Scorer create(SearchQuery query, Candidates candidates);
+    }
+
+    static final class IndexedPost {
+        final String[] terms;
+        final long createdAtEpochMillis;
+        volatile int reactionCount;
+
+        IndexedPost(String[] terms, long createdAtEpochMillis, int reactionCount) {
+            this.terms = terms;
+            this.createdAtEpochMillis = createdAtEpochMillis;
+            this.reactionCount = reactionCount;
+        }
+    }
+}
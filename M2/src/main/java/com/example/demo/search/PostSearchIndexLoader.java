@@ -0,0 +1,97 @@
+package com.example.demo.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+
+/**
+ * Fills the {@link PostSearchIndex} from the posts table once the application is up, walking
+ * the table by id in batches so memory stays flat, and afterwards refreshes the reaction counts
+ * the index ranks by (those change in M3, not through {@code PostService}).
+ */
+@Component
+public class PostSearchIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(PostSearchIndexLoader.class);
+
+    private static final String SELECT_POSTS =
+            "SELECT id, content, created_at, reaction_count FROM posts WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_REACTION_COUNTS =
+            "SELECT id, reaction_count FROM posts WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostSearchIndex index;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public PostSearchIndexLoader(JdbcTemplate jdbcTemplate,
+                                 PostSearchIndex index,
+                                 @Value("${m2.search.index.enabled:true}") boolean enabled,
+                                 @Value("${m2.search.index.rebuild-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.index = index;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            log.info("Post search index disabled, searches use SQL");
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long[] lastId = {0L};
+        int loaded = 0;
+        while (true) {
+            Integer rows = jdbcTemplate.query(SELECT_POSTS, rs -> {
+                int count = 0;
+                while (rs.next()) {
+                    long id = rs.getLong("id");
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    index.index(id, rs.getString("content"),
+                            createdAt != null ? createdAt.toLocalDateTime() : null, rs.getInt("reaction_count"));
+                    lastId[0] = id;
+                    count++;
+                }
+                return count;
+            }, lastId[0], batchSize);
+            loaded += rows == null ? 0 : rows;
+            if (rows == null || rows < batchSize) {
+                break;
+            }
+        }
+        index.markReady();
+        log.info("Post search index built: {} posts in {} ms", loaded, System.currentTimeMillis() - started);
+    }
+
+    @Scheduled(fixedDelayString = "${m2.search.index.reaction-refresh-ms:60000}",
+            initialDelayString = "${m2.search.index.reaction-refresh-ms:60000}")
+    public void refreshReactionCounts() {
+        if (!index.isReady()) {
+            return;
+        }
+        long[] lastId = {0L};
+        while (true) {
+            Integer rows = jdbcTemplate.query(SELECT_REACTION_COUNTS, rs -> {
+                int count = 0;
+                while (rs.next()) {
+                    lastId[0] = rs.getLong("id");
+                    index.updateReactionCount(lastId[0], rs.getInt("reaction_count"));
+                    count++;
+                }
+                return count;
+            }, lastId[0], batchSize);
+            if (rows == null || rows < batchSize) {
+                return;
+            }
+        }
+    }
+}
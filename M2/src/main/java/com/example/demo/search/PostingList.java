@@ -0,0 +1,85 @@
+package com.example.demo.search;
+
+import java.util.Arrays;
+
+/**
+ * Ids of the posts containing one term, kept sorted ascending in a primitive array, with the
+ * number of times the term occurs in each post alongside. Post ids grow with creation time, so
+ * new posts append at the end and walking the array backwards yields the newest posts first.
+ */
+final class PostingList {
+
+    private long[] ids = new long[4];
+    private int[] frequencies = new int[4];
+    private int size;
+
+    void add(long id, int frequency) {
+        if (size == 0 || ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size] = id;
+            frequencies[size++] = frequency;
+            return;
+        }
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            frequencies[position] = frequency;
+            return;
+        }
+        int insertAt = -position - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        System.arraycopy(frequencies, insertAt, frequencies, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        frequencies[insertAt] = frequency;
+        size++;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+        size--;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    /**
+     * Occurrences of the term in post {@code id}, or 0 if the post does not contain it.
+     */
+    int frequencyOf(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        return position >= 0 ? frequencies[position] : 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long get(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Index of the largest id strictly below {@code id}, or -1 if there is none.
+     */
+    int lastIndexBelow(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        return position >= 0 ? position - 1 : -position - 2;
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            frequencies = Arrays.copyOf(frequencies, frequencies.length * 2);
+        }
+    }
+}
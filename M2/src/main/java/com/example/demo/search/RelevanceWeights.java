@@ -0,0 +1,54 @@
+package com.example.demo.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scoring for {@code sort=relevance}: BM25 over the query terms, multiplied by a recency boost
+ * that halves every {@code half-life-hours} and a logarithmic reaction-count boost. Both boosts
+ * start at 1, so an old post without reactions keeps its plain text score.
+ */
+@Component
+public class RelevanceWeights {
+
+    private final double k1;
+    private final double b;
+    private final double halfLifeMillis;
+    private final double recencyWeight;
+    private final double reactionWeight;
+
+    public RelevanceWeights(@Value("${m2.search.relevance.k1:1.2}") double k1,
+                            @Value("${m2.search.relevance.b:0.75}") double b,
+                            @Value("${m2.search.relevance.half-life-hours:72}") double halfLifeHours,
+                            @Value("${m2.search.relevance.recency-weight:1.0}") double recencyWeight,
+                            @Value("${m2.search.relevance.reaction-weight:0.2}") double reactionWeight) {
+        this.k1 = k1;
+        this.b = b;
+        this.halfLifeMillis = halfLifeHours * 3_600_000d;
+        this.recencyWeight = recencyWeight;
+        this.reactionWeight = reactionWeight;
+    }
+
+    double idf(int documents, int documentFrequency) {
+        return Math.log(1 + (documents - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    /**
+     * The {@code k1 * (1 - b + b * |d| / avgdl)} part of the BM25 denominator, shared by all terms of a post.
+     */
+    double lengthNorm(int length, double averageLength) {
+        return k1 * (1 - b + b * length / averageLength);
+    }
+
+    double termScore(double idf, int frequency, double lengthNorm) {
+        if (frequency == 0) {
+            return 0;
+        }
+        return idf * frequency * (k1 + 1) / (frequency + lengthNorm);
+    }
+
+    double boost(long ageMillis, int reactionCount) {
+        double recency = Math.pow(0.5, Math.max(0, ageMillis) / halfLifeMillis);
+        return (1 + recencyWeight * recency) * (1 + reactionWeight * Math.log1p(Math.max(0, reactionCount)));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.search;
+
+import java.util.List;
+
+/**
+ * A parsed search query. All terms must match. A query starting with a double quote is a
+ * phrase: its terms must also appear next to each other, in order. Unless the query ends with
+ * a space or a closing quote, the last term is still being typed and matches as a prefix.
+ */
+record SearchQuery(List<String> terms, boolean phrase, boolean lastIsPrefix) {
+
+    static SearchQuery parse(String raw) {
+        if (raw == null) {
+            return new SearchQuery(List.of(), false, false);
+        }
+        String leading = raw.stripLeading();
+        boolean phrase = leading.startsWith("\"");
+        String trailing = leading.stripTrailing();
+        boolean closedPhrase = phrase && trailing.length() > 1 && trailing.endsWith("\"");
+        boolean endsWithSpace = !raw.isEmpty() && Character.isWhitespace(raw.charAt(raw.length() - 1));
+        List<String> terms = TextAnalyzer.analyze(raw);
+        return new SearchQuery(terms, phrase, !terms.isEmpty() && !endsWithSpace && !closedPhrase);
+    }
+
+    boolean isEmpty() {
+        return terms.isEmpty();
+    }
+
+    String lastTerm() {
+        return terms.get(terms.size() - 1);
+    }
+
+    /**
+     * Terms that must be present as whole terms: all of them, or all but the last when it is a prefix.
+     */
+    List<String> exactTerms() {
+        return lastIsPrefix ? terms.subList(0, terms.size() - 1) : terms;
+    }
+}
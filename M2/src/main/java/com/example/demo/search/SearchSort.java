@@ -0,0 +1,29 @@
+package com.example.demo.search;
+
+import com.example.demo.errorhandler.UserException;
+
+import java.util.Locale;
+
+public enum SearchSort {
+    RECENT,
+    RELEVANCE,
+    REACTIONS;
+
+    public static SearchSort parse(String value) throws UserException {
+        if (value == null || value.isBlank()) {
+            return RECENT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new UserException("Unsupported sort: " + value);
+        }
+    }
+
+    /**
+     * Whether results are ordered by a score rather than by (createdAt, id), and so page by offset.
+     */
+    public boolean isRanked() {
+        return this != RECENT;
+    }
+}
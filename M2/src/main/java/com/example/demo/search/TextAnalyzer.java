@@ -0,0 +1,49 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Turns post content and search queries into index terms: split on anything that is not a
+ * letter or digit, lowercase, and strip English plural endings. Queries go through the same
+ * steps, so "Policies" finds "policy".
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Terms in text order, duplicates kept (phrase matching and term frequencies need both).
+     */
+    public static List<String> analyze(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    static String stem(String token) {
+        int length = token.length();
+        if (length > 4 && token.endsWith("ies")) {
+            return token.substring(0, length - 3) + "y";
+        }
+        if (length > 4 && (token.endsWith("sses") || token.endsWith("shes") || token.endsWith("ches") || token.endsWith("xes"))) {
+            return token.substring(0, length - 2);
+        }
+        if (length > 3 && token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us") && !token.endsWith("is")) {
+            return token.substring(0, length - 1);
+        }
+        return token;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.search;
+
+/**
+ * The k best (score, id) pairs seen so far, in a min-heap over two primitive arrays so that
+ * offering millions of candidates allocates nothing. Ties on score go to the higher (newer) id.
+ */
+final class TopK {
+
+    private final double[] scores;
+    private final long[] ids;
+    private int size;
+
+    TopK(int capacity) {
+        this.scores = new double[capacity];
+        this.ids = new long[capacity];
+    }
+
+    void offer(long id, double score) {
+        if (scores.length == 0) {
+            return;
+        }
+        if (size < scores.length) {
+            scores[size] = score;
+            ids[size] = id;
+            siftUp(size++);
+        } else if (better(score, id, scores[0], ids[0])) {
+            scores[0] = score;
+            ids[0] = id;
+            siftDown(0);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Ids from best to worst. Empties the heap.
+     */
+    long[] drainBestFirst() {
+        long[] result = new long[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = ids[0];
+            size--;
+            scores[0] = scores[size];
+            ids[0] = ids[size];
+            siftDown(0);
+        }
+        return result;
+    }
+
+    private static boolean better(double score, long id, double otherScore, long otherId) {
+        return score > otherScore || (score == otherScore && id > otherId);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(scores[parent], ids[parent], scores[index], ids[index])) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && better(scores[left], ids[left], scores[right], ids[right])) {
+                worst = right;
+            }
+            if (!better(scores[index], ids[index], scores[worst], ids[worst])) {
+                return;
+            }
+            swap(index, worst);
+            index = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.demo.service;
 
 import com.example.demo.builder.commentbuilder.CommentBuilder;
 import com.example.demo.builder.commentbuilder.CommentViewBuilder;
+import com.example.demo.dto.ImageDTO;
 import com.example.demo.dto.commentdto.CommentDTO;
 import com.example.demo.dto.commentdto.CommentViewDTO;
 import com.example.demo.entity.Comment;
@@ -10,11 +11,15 @@ import com.example.demo.entity.User;
 import com.example.demo.errorhandler.UserException;
 import com.example.demo.repository.CommentRepository;
 import com.example.demo.repository.PostRepository;
+import com.example.demo.storage.BlobStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import jakarta.transaction.Transactional; // Corectat importul
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -28,18 +33,21 @@ public class CommentService {
     private final UserService userService;
     private final PostRepository postRepository;
     private final CommentBuilder commentBuilder;
-    private final PostService postService;
+    private final CommentViewBuilder commentViewBuilder;
+    private final BlobStore blobStore;
 
     public CommentService(CommentRepository commentRepository,
                           @Lazy UserService userService,
                           PostRepository postRepository,
                           CommentBuilder commentBuilder,
-                          @Lazy PostService postService) {
+                          CommentViewBuilder commentViewBuilder,
+                          BlobStore blobStore) {
         this.commentRepository = commentRepository;
         this.userService = userService;
         this.postRepository = postRepository;
         this.commentBuilder = commentBuilder;
-        this.postService = postService;
+        this.commentViewBuilder = commentViewBuilder;
+        this.blobStore = blobStore;
     }
 
     @Transactional
@@ -50,14 +58,8 @@ public class CommentService {
         Comment comment = commentBuilder.generateEntityFromDTO(commentDTO, user, post);
         comment.setReactionCount(0);
         Comment savedComment = commentRepository.save(comment);
-
-        try {
-            postService.recalculateAndSaveAggregateReactionsForPost(post.getId());
-        } catch (UserException e) {
-            log.error("Failed to trigger aggregate reaction update for post {} after new comment {} creation: {}",
-                    post.getId(), savedComment.getId(), e.getMessage());
-        }
-        return CommentViewBuilder.generateDTOFromEntity(savedComment);
+        // A new comment has no reactions yet, so the post's aggregate is unchanged.
+        return commentViewBuilder.generateDTOFromEntity(savedComment);
     }
 
     @Transactional
@@ -70,40 +72,45 @@ public class CommentService {
         comment.setContent(commentDTO.getContent());
         if (commentDTO.getImageBase64() != null) {
             if (commentDTO.getImageBase64().isEmpty()) {
-                comment.setImage(null);
+                comment.clearImage();
             } else {
                 try {
-                    comment.setImage(Base64.getDecoder().decode(commentDTO.getImageBase64()));
+                    byte[] imageBytes = Base64.getDecoder().decode(commentDTO.getImageBase64());
+                    comment.attachImage(blobStore.store(new ByteArrayInputStream(imageBytes), null));
                 } catch (IllegalArgumentException e) {
                     throw new UserException("Invalid image data format.");
+                } catch (IOException e) {
+                    log.error("Error storing updated image for comment {}: {}", commentId, e.getMessage(), e);
+                    throw new UserException("Error processing updated image.", e);
                 }
             }
         }
         Comment savedComment = commentRepository.save(comment);
-        return CommentViewBuilder.generateDTOFromEntity(savedComment);
+        return commentViewBuilder.generateDTOFromEntity(savedComment);
     }
 
     @Transactional
     public void deleteComment(Long commentId, Long userId) throws UserException {
-        Comment comment = commentRepository.findById(commentId)
+        Comment comment = commentRepository.findByIdForUpdate(commentId)
                 .orElseThrow(() -> new UserException("Comment not found with id: " + commentId));
         if (!comment.getUser().getId().equals(userId)) {
             throw new UserException("Not authorized to delete this comment");
         }
-        Long parentPostId = comment.getPost() != null ? comment.getPost().getId() : null;
-
+        subtractFromParentPost(comment);
         commentRepository.delete(comment);
         log.info("User {} deleted comment {}", userId, commentId);
+    }
 
-
-        if (parentPostId != null) {
-            try {
-                postService.recalculateAndSaveAggregateReactionsForPost(parentPostId);
-            } catch (UserException e) {
-                log.error("Failed to trigger aggregate reaction update for post {} after comment {} deletion by user: {}",
-                        parentPostId, commentId, e.getMessage());
-            }
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public ImageDTO getCommentImage(Long commentId) throws UserException {
+        Comment comment = commentRepository.findById(commentId)
+                .orElseThrow(() -> new UserException("Comment not found with id: " + commentId));
+        if (!comment.hasImage()) {
+            throw new UserException("Image not found for comment with id: " + commentId);
         }
+        Resource content = blobStore.find(comment.getImageHash())
+                .orElseThrow(() -> new UserException("Image not found for comment with id: " + commentId));
+        return new ImageDTO(comment.getImageHash(), comment.getImageMimeType(), content);
     }
 
     @Transactional(Transactional.TxType.SUPPORTS)
@@ -113,32 +120,32 @@ public class CommentService {
         }
         return commentRepository.findByPostIdOrderByCreatedAtDesc(postId)
                 .stream()
-                .map(CommentViewBuilder::generateDTOFromEntity)
+                .map(commentViewBuilder::generateDTOFromEntity)
                 .collect(Collectors.toList());
     }
 
 
+    /**
+     * M3 reports the comment's new absolute count; the difference from the stored count is added
+     * to the parent post's aggregate. The comment row stays locked until commit so concurrent
+     * updates for the same comment apply their deltas one after another.
+     */
     @Transactional
     public void updateCommentReactionCount(Long commentId, int newCommentReactionCount) throws UserException {
-        Comment comment = commentRepository.findById(commentId)
+        Comment comment = commentRepository.findByIdForUpdate(commentId)
                 .orElseThrow(() -> new UserException("Comment not found with id: " + commentId + " when trying to update reaction count."));
 
-        comment.setReactionCount(newCommentReactionCount);
-        Comment savedComment = commentRepository.save(comment);
-        log.info("Updated reaction count for comment {} to {}", commentId, newCommentReactionCount);
-
-        if (savedComment.getPost() != null) {
-            try {
-                log.debug("Triggering aggregate recalculation for post {} due to comment {} reaction update.",
-                        savedComment.getPost().getId(), commentId);
-                postService.recalculateAndSaveAggregateReactionsForPost(savedComment.getPost().getId());
-            } catch (UserException e) {
-                log.error("Failed to trigger aggregate reaction update for post {} after comment {} reaction update: {}",
-                        savedComment.getPost().getId(), commentId, e.getMessage());
-            }
+        int delta = newCommentReactionCount - comment.getReactionCount();
+        if (delta == 0) {
+            return;
+        }
+        commentRepository.updateReactionCount(commentId, newCommentReactionCount);
+        if (comment.getPost() != null) {
+            postRepository.addToReactionCount(comment.getPost().getId(), delta);
         } else {
-            log.warn("Comment {} does not have an associated post. Cannot trigger aggregate update for parent post.", commentId);
+            log.warn("Comment {} does not have an associated post. Cannot update the parent post's aggregate.", commentId);
         }
+        log.debug("Updated reaction count for comment {} to {} (delta {})", commentId, newCommentReactionCount, delta);
     }
 
     @Transactional(Transactional.TxType.SUPPORTS)
@@ -157,7 +164,7 @@ public class CommentService {
                     .append("\nContent: ").append(commentEntity.getContent())
                     .append("\nCreated At: ").append(commentEntity.getCreatedAt())
                     .append("\nReactions: ").append(commentEntity.getReactionCount())
-                    .append(commentEntity.getImage() != null && commentEntity.getImage().length > 0 ? "\n(Image attached)" : "")
+                    .append(commentEntity.hasImage() ? "\n(Image attached)" : "")
                     .append("\n-------------------\n");
         }
         return result.toString();
@@ -165,23 +172,19 @@ public class CommentService {
 
     @Transactional
     public void deleteCommentAsAdmin(Long commentId, Long adminUserId) throws UserException {
-        Comment comment = commentRepository.findById(commentId)
+        Comment comment = commentRepository.findByIdForUpdate(commentId)
                 .orElseThrow(() -> new UserException("Comment not found with id: " + commentId));
 
-        Long parentPostId = comment.getPost() != null ? comment.getPost().getId() : null;
         Long originalAuthorId = comment.getUser() != null ? comment.getUser().getId() : null;
 
+        subtractFromParentPost(comment);
         commentRepository.delete(comment);
         log.info("Admin {} deleted comment {} (original author ID: {})", adminUserId, commentId, originalAuthorId != null ? originalAuthorId : "N/A");
+    }
 
-        if (parentPostId != null) {
-            try {
-                log.info("Triggering aggregate reaction update for post {} after admin deleted comment {}", parentPostId, commentId);
-                postService.recalculateAndSaveAggregateReactionsForPost(parentPostId);
-            } catch (UserException e) {
-                log.error("Failed to trigger aggregate reaction update for post {} after admin deleted comment {}: {}",
-                        parentPostId, commentId, e.getMessage());
-            }
+    private void subtractFromParentPost(Comment comment) {
+        if (comment.getPost() != null && comment.getReactionCount() != 0) {
+            postRepository.addToReactionCount(comment.getPost().getId(), -comment.getReactionCount());
         }
     }
 }
\ No newline at end of file
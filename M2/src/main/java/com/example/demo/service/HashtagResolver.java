@@ -0,0 +1,174 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Hashtag;
+import com.example.demo.repository.HashtagRepository;
+import com.example.demo.search.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns the tag names of a post into managed {@link Hashtag}s with a fixed number of
+ * statements however many tags there are: tags whose id is cached load by primary key, the
+ * rest with one {@code IN} lookup on {@code normalized_name}, and the still-missing ones are
+ * inserted in one JDBC batch and read back with a shared lock.
+ *
+ * <p>Two posts creating the same new tag concurrently both try to insert it; the unique key on
+ * {@code normalized_name} lets one win, the other falls back to row-by-row inserts that ignore
+ * duplicates, and the locking read then returns the winner's row even under REPEATABLE READ.
+ * Ids are cached only once they are known to be committed. Hashtags are never deleted, so
+ * cached ids do not go stale.
+ */
+@Service
+public class HashtagResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(HashtagResolver.class);
+
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final String INSERT_HASHTAG = "INSERT INTO hashtags (name, normalized_name) VALUES (?, ?)";
+
+    private final Map<String, Long> idsByNormalizedName = new ConcurrentHashMap<>();
+    private final HashtagRepository hashtagRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxCachedIds;
+
+    public HashtagResolver(HashtagRepository hashtagRepository,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${m2.hashtags.id-cache.max-size:100000}") int maxCachedIds) {
+        this.hashtagRepository = hashtagRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxCachedIds = maxCachedIds;
+    }
+
+    /**
+     * Fills {@code normalized_name} for rows written before the column existed.
+     */
+    @PostConstruct
+    public void backfillNormalizedNames() {
+        try {
+            int updated = jdbcTemplate.update("UPDATE hashtags SET normalized_name = LOWER(name) WHERE normalized_name IS NULL");
+            if (updated > 0) {
+                log.info("Backfilled normalized_name for {} hashtags", updated);
+            }
+        } catch (DataAccessException e) {
+            log.error("Could not backfill hashtags.normalized_name, tags differing only in case may exist: {}", e.getMessage());
+        }
+    }
+
+    @Transactional
+    public Set<Hashtag> findOrCreate(Collection<String> tagNames) {
+        Map<String, String> wanted = normalizeInput(tagNames);
+        Set<Hashtag> resolved = new HashSet<>();
+        if (wanted.isEmpty()) {
+            return resolved;
+        }
+
+        Set<String> missing = new LinkedHashSet<>();
+        Map<Long, String> cachedIds = new HashMap<>();
+        wanted.keySet().forEach(key -> {
+            Long id = idsByNormalizedName.get(key);
+            if (id != null) {
+                cachedIds.put(id, key);
+            } else {
+                missing.add(key);
+            }
+        });
+
+        if (!cachedIds.isEmpty()) {
+            Set<String> loaded = new HashSet<>();
+            for (Hashtag hashtag : hashtagRepository.findAllById(cachedIds.keySet())) {
+                resolved.add(hashtag);
+                loaded.add(hashtag.getNormalizedName());
+            }
+            // A cached tag committed after this transaction's snapshot is not visible yet.
+            cachedIds.values().stream().filter(key -> !loaded.contains(key)).forEach(missing::add);
+        }
+
+        if (!missing.isEmpty()) {
+            for (Hashtag hashtag : hashtagRepository.findAllByNormalizedNameIn(missing)) {
+                resolved.add(hashtag);
+                missing.remove(hashtag.getNormalizedName());
+                cache(hashtag.getNormalizedName(), hashtag.getId());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            insert(missing, wanted);
+            Map<String, Long> created = new HashMap<>();
+            for (Hashtag hashtag : hashtagRepository.findAllByNormalizedNameInForShare(missing)) {
+                resolved.add(hashtag);
+                missing.remove(hashtag.getNormalizedName());
+                created.put(hashtag.getNormalizedName(), hashtag.getId());
+            }
+            AfterCommit.run(() -> created.forEach(this::cache));
+            if (!missing.isEmpty()) {
+                log.warn("Could not resolve hashtags {}; they clash with existing names under the database collation", missing);
+            }
+        }
+        return resolved;
+    }
+
+    private void insert(Set<String> normalizedNames, Map<String, String> names) {
+        List<Object[]> rows = new ArrayList<>(normalizedNames.size());
+        normalizedNames.forEach(key -> rows.add(new Object[]{names.get(key), key}));
+        try {
+            jdbcTemplate.batchUpdate(INSERT_HASHTAG, rows);
+        } catch (DuplicateKeyException e) {
+            log.debug("Concurrent creation of some of hashtags {}, inserting one by one", normalizedNames);
+            for (Object[] row : rows) {
+                try {
+                    jdbcTemplate.update(INSERT_HASHTAG, row);
+                } catch (DuplicateKeyException alreadyThere) {
+                    // Created by another transaction, or by the batch above before it failed.
+                }
+            }
+        }
+    }
+
+    /**
+     * Normalized name to the name as first given, skipping blank and over-long tags.
+     */
+    private Map<String, String> normalizeInput(Collection<String> tagNames) {
+        Map<String, String> wanted = new LinkedHashMap<>();
+        if (tagNames == null) {
+            return wanted;
+        }
+        for (String tagNameInput : tagNames) {
+            if (tagNameInput == null || tagNameInput.trim().isEmpty()) {
+                continue;
+            }
+            String name = tagNameInput.trim().replaceAll("^#+", "");
+            if (name.isEmpty() || name.length() > MAX_NAME_LENGTH) {
+                log.warn("Skipping invalid or too long hashtag: '{}'", tagNameInput);
+                continue;
+            }
+            wanted.putIfAbsent(Hashtag.normalize(name), name);
+        }
+        return wanted;
+    }
+
+    private void cache(String normalizedName, Long id) {
+        if (idsByNormalizedName.size() >= maxCachedIds) {
+            // Crude but bounded; the cache refills from the next lookups.
+            idsByNormalizedName.clear();
+        }
+        idsByNormalizedName.put(normalizedName, id);
+    }
+}
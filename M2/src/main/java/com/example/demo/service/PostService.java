@@ -2,33 +2,41 @@ package com.example.demo.service;
 
 import com.example.demo.builder.postbuilder.PostBuilder;
 import com.example.demo.builder.postbuilder.PostViewBuilder;
+import com.example.demo.dto.ImageDTO;
+import com.example.demo.dto.postdto.FeedCursor;
 import com.example.demo.dto.postdto.PostDTO;
+import com.example.demo.dto.postdto.PostPageDTO;
 import com.example.demo.dto.postdto.PostViewDTO;
-import com.example.demo.entity.Comment;
+import com.example.demo.dto.postdto.RankedCursor;
 import com.example.demo.entity.Hashtag;
 import com.example.demo.entity.Post;
 import com.example.demo.entity.User;
 import com.example.demo.errorhandler.UserException;
-import com.example.demo.repository.CommentRepository;
-import com.example.demo.repository.HashtagRepository;
 import com.example.demo.repository.PostRepository;
+import com.example.demo.search.AfterCommit;
+import com.example.demo.search.HashtagIndex;
+import com.example.demo.search.HashtagMatch;
+import com.example.demo.search.PostSearchIndex;
+import com.example.demo.search.SearchSort;
+import com.example.demo.storage.BlobStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.Collection;
-import java.util.HashSet;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,25 +47,37 @@ public class PostService {
     private final PostRepository postRepository;
     private final UserService userService;
     private final PostBuilder postBuilder;
-    private final HashtagRepository hashtagRepository;
-    private final CommentRepository commentRepository;
-    private final RestTemplate restTemplate;
-    private final String m3BaseUrl;
+    private final PostViewBuilder postViewBuilder;
+    private final BlobStore blobStore;
+    private final HashtagResolver hashtagResolver;
+    private final PostSearchIndex postSearchIndex;
+    private final HashtagIndex hashtagIndex;
+    private final TrendingHashtagService trendingHashtagService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     public PostService(PostRepository postRepository,
                        @Lazy UserService userService,
                        PostBuilder postBuilder,
-                       HashtagRepository hashtagRepository,
-                       CommentRepository commentRepository,
-                       RestTemplate restTemplate,
-                       @Value("${m3.service.url}") String m3BaseUrl) {
+                       PostViewBuilder postViewBuilder,
+                       BlobStore blobStore,
+                       HashtagResolver hashtagResolver,
+                       PostSearchIndex postSearchIndex,
+                       HashtagIndex hashtagIndex,
+                       TrendingHashtagService trendingHashtagService,
+                       @Value("${m2.feed.default-page-size:20}") int defaultPageSize,
+                       @Value("${m2.feed.max-page-size:100}") int maxPageSize) {
         this.postRepository = postRepository;
         this.userService = userService;
         this.postBuilder = postBuilder;
-        this.hashtagRepository = hashtagRepository;
-        this.commentRepository = commentRepository;
-        this.restTemplate = restTemplate;
-        this.m3BaseUrl = m3BaseUrl;
+        this.postViewBuilder = postViewBuilder;
+        this.blobStore = blobStore;
+        this.hashtagResolver = hashtagResolver;
+        this.postSearchIndex = postSearchIndex;
+        this.hashtagIndex = hashtagIndex;
+        this.trendingHashtagService = trendingHashtagService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     @Transactional
@@ -66,12 +86,13 @@ public class PostService {
         Post post;
         try {
             post = postBuilder.generateEntityFromDTO(postDTO, user);
-            Set<Hashtag> managedHashtags = findOrCreateHashtags(postDTO.getHashtags());
+            Set<Hashtag> managedHashtags = hashtagResolver.findOrCreate(postDTO.getHashtags());
             post.getHashtags().clear();
             if (managedHashtags != null && !managedHashtags.isEmpty()) {
                 managedHashtags.forEach(post::addHashtag);
             }
             post.setReactionCount(0);
+            post.setDirectReactionCount(0);
         } catch (IOException e) {
             log.error("Error processing image during post creation for user {}: {}", userId, e.getMessage(), e);
             throw new UserException("Error processing image file.", e);
@@ -80,7 +101,9 @@ public class PostService {
             throw new UserException("An unexpected error occurred while creating the post.", e);
         }
         Post savedPost = postRepository.save(post);
-        return PostViewBuilder.generateDTOFromEntity(savedPost);
+        indexAfterCommit(savedPost);
+        recordTrendingAfterCommit(savedPost, Set.of());
+        return postViewBuilder.generateDTOFromEntity(savedPost);
     }
 
     @Transactional
@@ -97,25 +120,30 @@ public class PostService {
 
         MultipartFile imageFile = postDTO.getImage();
         if (imageFile != null && !imageFile.isEmpty()) {
-            try {
-                post.setImage(imageFile.getBytes());
+            try (InputStream content = imageFile.getInputStream()) {
+                post.attachImage(blobStore.store(content, imageFile.getContentType()));
             } catch (IOException e) {
                 log.error("Error processing updated image file for post {}: {}", postId, e.getMessage(), e);
                 throw new UserException("Error processing updated image file.", e);
             }
-        } else if (postDTO.getImage() == null && post.getImage() != null) {
-            post.setImage(null);
+        } else if (postDTO.getImage() == null && post.hasImage()) {
+            post.clearImage();
         }
 
 
-        Set<Hashtag> updatedHashtags = findOrCreateHashtags(postDTO.getHashtags());
+        Set<String> previousTags = post.getHashtags().stream()
+                .map(hashtag -> HashtagIndex.normalize(hashtag.getName()))
+                .collect(Collectors.toSet());
+        Set<Hashtag> updatedHashtags = hashtagResolver.findOrCreate(postDTO.getHashtags());
         post.getHashtags().clear();
         if (updatedHashtags != null) {
             updatedHashtags.forEach(post::addHashtag);
         }
 
         Post savedPost = postRepository.save(post);
-        return PostViewBuilder.generateDTOFromEntity(savedPost);
+        indexAfterCommit(savedPost);
+        recordTrendingAfterCommit(savedPost, previousTags);
+        return postViewBuilder.generateDTOFromEntity(savedPost);
     }
 
     @Transactional
@@ -126,6 +154,7 @@ public class PostService {
             throw new UserException("Not authorized to delete this post");
         }
         postRepository.delete(post);
+        unindexAfterCommit(postId);
         log.info("User {} deleted post {}", userId, postId);
 
     }
@@ -135,173 +164,191 @@ public class PostService {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new UserException("Post not found with id: " + postId + " for admin deletion."));
         postRepository.delete(post);
+        unindexAfterCommit(postId);
         log.info("Admin {} deleted post {}. Associated comments and hashtags will be removed by cascade if configured, or M3 will clean reactions.", adminUserId, postId);
     }
 
 
     @Transactional(readOnly = true)
-    public List<PostViewDTO> getAllPosts() {
-        return postRepository.findAllByOrderByCreatedAtDesc()
-                .stream()
-                .map(PostViewBuilder::generateDTOFromEntity)
-                .collect(Collectors.toList());
+    public ImageDTO getPostImage(Long postId) throws UserException {
+        Post post = postRepository.findById(postId)
+                .orElseThrow(() -> new UserException("Post not found with id: " + postId));
+        if (!post.hasImage()) {
+            throw new UserException("Image not found for post with id: " + postId);
+        }
+        Resource content = blobStore.find(post.getImageHash())
+                .orElseThrow(() -> new UserException("Image not found for post with id: " + postId));
+        return new ImageDTO(post.getImageHash(), post.getImageMimeType(), content);
+    }
+
+    @Transactional(readOnly = true)
+    public PostPageDTO getAllPosts(String cursor, Integer limit) throws UserException {
+        FeedCursor after = FeedCursor.decode(cursor);
+        int pageSize = resolvePageSize(limit);
+        return toPage(postRepository.findFeedPage(after.getCreatedAt(), after.getId(), PageRequest.of(0, pageSize + 1)), pageSize);
     }
 
     @Transactional(readOnly = true)
     public List<PostViewDTO> getAllPostsOrderByReactionCountDesc() {
         return postRepository.findAllByOrderByReactionCountDescCreatedAtDesc()
                 .stream()
-                .map(PostViewBuilder::generateDTOFromEntity)
+                .map(postViewBuilder::generateDTOFromEntity)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Applies the direct count reported by M3 as a delta on the aggregate, in a single UPDATE.
+     */
     @Transactional
     public void updatePostReactionCount(Long postId, int newDirectPostReactionCount) throws UserException {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new UserException("Post not found with id: " + postId + " when trying to update reaction count."));
-
-        int commentReactionsSum = 0;
-        List<Comment> comments = commentRepository.findByPostIdOrderByCreatedAtDesc(postId);
-        if (comments != null) {
-            for (Comment comment : comments) {
-                commentReactionsSum += comment.getReactionCount();
-            }
-        }
-
-        post.setReactionCount(newDirectPostReactionCount + commentReactionsSum);
-        log.info("Updating aggregate reaction count for post {}: direct (from M3)={}, comments={}, total={}",
-                postId, newDirectPostReactionCount, commentReactionsSum, post.getReactionCount());
-        postRepository.save(post);
-    }
-
-    @Transactional
-    public void recalculateAndSaveAggregateReactionsForPost(Long postId) throws UserException {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new UserException("Post not found with id: " + postId + " for aggregate reaction recalculation."));
-
-        int directPostReactionsFromM3 = 0;
-        String m3PostReactionCountUrl = m3BaseUrl + "/api/m3/reactions/target/POST/" + postId + "/count";
-        try {
-            log.debug("Fetching direct reaction count for post {} from M3 URL: {}", postId, m3PostReactionCountUrl);
-            ResponseEntity<Long> response = restTemplate.exchange(m3PostReactionCountUrl, HttpMethod.GET, null, Long.class);
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                directPostReactionsFromM3 = response.getBody().intValue();
-                log.debug("Successfully fetched direct reactions for post {}: {}", postId, directPostReactionsFromM3);
-            } else {
-                log.warn("Could not fetch direct reaction count for post {} from M3. Status: {}, Body: {}",
-                        postId, response.getStatusCode(), response.getBody());
-            }
-        } catch (HttpClientErrorException e) {
-            if (e.getStatusCode().value() == 404) {
-                log.info("Post {} not found in M3 (or no direct reactions - 404 received). Assuming 0 direct reactions.", postId);
-                directPostReactionsFromM3 = 0;
-            } else {
-                log.error("Client error fetching direct reaction count for post {} from M3: {} - {}", postId, e.getStatusCode(), e.getResponseBodyAsString(), e);
-            }
-        } catch (Exception e) {
-            log.error("Unexpected error fetching direct reaction count for post {} from M3: {}", postId, e.getMessage(), e);
+        int updated = postRepository.updateDirectReactionCount(postId, newDirectPostReactionCount);
+        if (updated == 0) {
+            throw new UserException("Post not found with id: " + postId + " when trying to update reaction count.");
         }
-
-        int commentReactionsSum = 0;
-        List<Comment> comments = commentRepository.findByPostIdOrderByCreatedAtDesc(postId);
-        if (comments != null) {
-            for (Comment comment : comments) {
-                commentReactionsSum += comment.getReactionCount();
-            }
-        }
-        log.debug("Sum of comment reactions for post {}: {}", postId, commentReactionsSum);
-
-        post.setReactionCount(directPostReactionsFromM3 + commentReactionsSum);
-        log.info("Recalculated aggregate reaction count for post {}: directM3={}, comments={}, total={}",
-                postId, directPostReactionsFromM3, commentReactionsSum, post.getReactionCount());
-        postRepository.save(post);
+        log.debug("Set direct reaction count of post {} to {}", postId, newDirectPostReactionCount);
     }
 
     @Transactional(readOnly = true)
-    public List<PostViewDTO> getPostsByUser(Long userId) throws UserException {
+    public PostPageDTO getPostsByUser(Long userId, String cursor, Integer limit) throws UserException {
         if (!userService.userExists(userId)) {
             throw new UserException("User not found with id: " + userId);
         }
-        return postRepository.findByUserIdOrderByCreatedAtDesc(userId)
-                .stream()
-                .map(PostViewBuilder::generateDTOFromEntity)
-                .collect(Collectors.toList());
+        FeedCursor after = FeedCursor.decode(cursor);
+        int pageSize = resolvePageSize(limit);
+        return toPage(postRepository.findUserPage(userId, after.getCreatedAt(), after.getId(), PageRequest.of(0, pageSize + 1)), pageSize);
     }
 
     @Transactional(readOnly = true)
-    public List<PostViewDTO> getPostsByHashtag(String hashtagName) {
-        String queryName = hashtagName.startsWith("#") ? hashtagName.substring(1) : hashtagName;
-        if (queryName.trim().isEmpty()) return List.of();
-
-        return postRepository.findAllByHashtags_NameIgnoreCaseOrderByCreatedAtDesc(queryName)
-                .stream()
-                .map(PostViewBuilder::generateDTOFromEntity)
-                .collect(Collectors.toList());
+    public PostPageDTO getPostsByHashtag(String hashtagName, String cursor, Integer limit) throws UserException {
+        return getPostsByHashtags(List.of(hashtagName), null, null, cursor, limit);
     }
 
+    /**
+     * Posts tagged with all ({@code mode=all}) or any ({@code mode=any}, the default) of
+     * {@code tags} and none of {@code excluded}, newest first, answered from {@link HashtagIndex}.
+     */
     @Transactional(readOnly = true)
-    public List<PostViewDTO> getPostsByHashtags(List<String> hashtagNames) {
-        if (hashtagNames == null || hashtagNames.isEmpty()) {
-            return List.of();
+    public PostPageDTO getPostsByHashtags(List<String> tags, String mode, List<String> excluded,
+                                          String cursor, Integer limit) throws UserException {
+        HashtagMatch match = HashtagMatch.parse(mode);
+        if (tags == null || tags.isEmpty()) {
+            return new PostPageDTO(List.of(), null);
         }
-        List<String> normalizedQueryNames = hashtagNames.stream()
-                .map(name -> name.startsWith("#") ? name.substring(1) : name)
-                .map(String::trim)
-                .filter(name -> !name.isEmpty())
-                .map(String::toLowerCase)
-                .distinct()
-                .collect(Collectors.toList());
+        FeedCursor after = FeedCursor.decode(cursor);
+        int pageSize = resolvePageSize(limit);
+        List<Long> ids = hashtagIndex.find(tags, match, excluded, after.getId(), pageSize + 1);
+        return toPage(findAllInOrder(ids), pageSize);
+    }
 
-        if (normalizedQueryNames.isEmpty()) {
-            return List.of();
+    /**
+     * Full-text search over post content. Served from {@link PostSearchIndex} once it is built;
+     * until then, and when the index is disabled, falls back to a LIKE scan in recency order.
+     */
+    @Transactional(readOnly = true)
+    public PostPageDTO searchPostsByText(String query, String sort, String cursor, Integer limit) throws UserException {
+        if (query == null || query.trim().isEmpty()) {
+            return new PostPageDTO(List.of(), null);
+        }
+        SearchSort searchSort = SearchSort.parse(sort);
+        int pageSize = resolvePageSize(limit);
+        if (!postSearchIndex.isReady()) {
+            return searchPostsByLike(query, cursor, pageSize);
         }
+        if (searchSort.isRanked()) {
+            RankedCursor after = RankedCursor.decode(cursor);
+            List<Long> ids = searchSort == SearchSort.RELEVANCE
+                    ? postSearchIndex.searchByRelevance(query, after.getOffset(), pageSize + 1)
+                    : postSearchIndex.searchByReactions(query, after.getOffset(), pageSize + 1);
+            boolean hasMore = ids.size() > pageSize;
+            List<Post> page = findAllInOrder(hasMore ? ids.subList(0, pageSize) : ids);
+            String nextCursor = hasMore ? new RankedCursor(after.getOffset() + pageSize).encode() : null;
+            return new PostPageDTO(page.stream().map(postViewBuilder::generateDTOFromEntity).collect(Collectors.toList()), nextCursor);
+        }
+        FeedCursor after = FeedCursor.decode(cursor);
+        return toPage(findAllInOrder(postSearchIndex.searchRecent(query, after.getId(), pageSize + 1)), pageSize);
+    }
 
-        return postRepository.findAllByHashtags_NameInIgnoreCaseOrderByCreatedAtDesc(normalizedQueryNames)
-                .stream()
-                .map(PostViewBuilder::generateDTOFromEntity)
-                .collect(Collectors.toList());
+    private PostPageDTO searchPostsByLike(String query, String cursor, int pageSize) throws UserException {
+        String pattern = "%" + query.trim().toLowerCase()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_") + "%";
+        FeedCursor after = FeedCursor.decode(cursor);
+        return toPage(postRepository.findContentPage(pattern, after.getCreatedAt(), after.getId(), PageRequest.of(0, pageSize + 1)), pageSize);
     }
 
-    @Transactional(readOnly = true)
-    public List<PostViewDTO> searchPostsByText(String query) {
-        if (query == null || query.trim().isEmpty()) {
+    /**
+     * Loads posts by id keeping the order of {@code ids}; ids deleted since they were indexed are skipped.
+     */
+    private List<Post> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
             return List.of();
         }
-        return postRepository.findByContentContainingIgnoreCaseOrderByCreatedAtDesc(query.trim())
-                .stream()
-                .map(PostViewBuilder::generateDTOFromEntity)
+        Map<Long, Post> byId = postRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<Post> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Post post = byId.get(id);
+            if (post != null) {
+                ordered.add(post);
+            }
+        }
+        return ordered;
+    }
+
+    private void indexAfterCommit(Post post) {
+        Long id = post.getId();
+        String content = post.getContent();
+        LocalDateTime createdAt = post.getCreatedAt();
+        int reactionCount = post.getReactionCount();
+        List<String> tags = post.getHashtags().stream().map(Hashtag::getName).collect(Collectors.toList());
+        AfterCommit.run(() -> {
+            postSearchIndex.index(id, content, createdAt, reactionCount);
+            hashtagIndex.setTags(id, tags);
+        });
+    }
+
+    /**
+     * Counts the tags {@code post} gained, i.e. all of them for a new post, towards trending.
+     */
+    private void recordTrendingAfterCommit(Post post, Set<String> previousTags) {
+        List<String> addedTags = post.getHashtags().stream()
+                .map(hashtag -> HashtagIndex.normalize(hashtag.getName()))
+                .filter(tag -> !previousTags.contains(tag))
                 .collect(Collectors.toList());
+        if (!addedTags.isEmpty()) {
+            AfterCommit.run(() -> trendingHashtagService.recordTags(addedTags));
+        }
     }
 
-    private Set<Hashtag> findOrCreateHashtags(Collection<String> tagNames) {
-        if (tagNames == null || tagNames.isEmpty()) {
-            return new HashSet<>();
+    private void unindexAfterCommit(Long postId) {
+        AfterCommit.run(() -> {
+            postSearchIndex.remove(postId);
+            hashtagIndex.remove(postId);
+        });
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultPageSize;
         }
-        Set<Hashtag> managedTags = new HashSet<>();
-        for (String tagNameInput : tagNames) {
-            if (tagNameInput == null || tagNameInput.trim().isEmpty()) {
-                continue;
-            }
-            String normalizedName = tagNameInput.trim().replaceAll("^#+", "");
-            if (normalizedName.isEmpty() || normalizedName.length() > 100) {
-                log.warn("Skipping invalid or too long hashtag: '{}'", tagNameInput);
-                continue;
-            }
+        return Math.min(limit, maxPageSize);
+    }
 
-            Hashtag hashtag = hashtagRepository.findByNameIgnoreCase(normalizedName)
-                    .orElseGet(() -> {
-                        try {
-                            log.debug("Creating new hashtag with name: '{}'", normalizedName);
-                            return hashtagRepository.save(new Hashtag(normalizedName));
-                        } catch (Exception e) {
-                            log.warn("Could not save new hashtag '{}', possibly due to concurrent creation or other DB constraint. Attempting to find again. Error: {}", normalizedName, e.getMessage());
-                            return hashtagRepository.findByNameIgnoreCase(normalizedName).orElse(null);
-                        }
-                    });
-            if (hashtag != null) {
-                managedTags.add(hashtag);
-            }
+    /**
+     * {@code rows} holds up to {@code pageSize + 1} posts; the extra row only signals that another page exists.
+     */
+    private PostPageDTO toPage(List<Post> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<Post> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Post last = page.get(page.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
         }
-        return managedTags;
+        List<PostViewDTO> posts = page.stream()
+                .map(postViewBuilder::generateDTOFromEntity)
+                .collect(Collectors.toList());
+        return new PostPageDTO(posts, nextCursor);
     }
 }
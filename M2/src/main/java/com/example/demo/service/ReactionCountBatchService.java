@@ -0,0 +1,211 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ReactionCountBatchEntryDTO;
+import com.example.demo.dto.ReactionCountBatchResultDTO;
+import com.example.demo.entity.TargetType;
+import com.example.demo.errorhandler.UserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Applies many reaction count updates in one transaction. Entries are folded per target first,
+ * so each comment and each post is written once, and the writes go out as JDBC batches.
+ * Comment rows are locked before post rows, and each in id order, the same order the
+ * single-target updates in {@link CommentService} use.
+ */
+@Service
+public class ReactionCountBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactionCountBatchService.class);
+
+    private static final int LOCK_CHUNK_SIZE = 1000;
+
+    private static final String UPDATE_COMMENT =
+            "UPDATE comments SET reaction_count = ? WHERE id = ?";
+
+    // With an absolute direct count the aggregate moves by (new - old direct); otherwise by the
+    // direct delta. reaction_count is assigned first because MySQL evaluates SET left to right.
+    private static final String UPDATE_POST =
+            "UPDATE posts SET reaction_count = reaction_count + ? + COALESCE(? - direct_reaction_count, ?), " +
+            "direct_reaction_count = COALESCE(?, direct_reaction_count + ?) WHERE id = ?";
+
+    private static final int[] UPDATE_COMMENT_TYPES = {Types.INTEGER, Types.BIGINT};
+    private static final int[] UPDATE_POST_TYPES =
+            {Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.BIGINT};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxEntries;
+
+    public ReactionCountBatchService(JdbcTemplate jdbcTemplate,
+                                     @Value("${m2.reactions.batch.max-entries:10000}") int maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxEntries = maxEntries;
+    }
+
+    @Transactional
+    public ReactionCountBatchResultDTO applyBatch(List<ReactionCountBatchEntryDTO> entries) throws UserException {
+        validate(entries);
+
+        Map<Long, PostChange> postChanges = new TreeMap<>();
+        List<ReactionCountBatchEntryDTO> commentEntries = new ArrayList<>();
+        int postEntries = 0;
+        for (ReactionCountBatchEntryDTO entry : entries) {
+            if (entry.getTargetType() == TargetType.POST) {
+                postChanges.computeIfAbsent(entry.getTargetId(), id -> new PostChange()).applyDirect(entry);
+                postEntries++;
+            } else {
+                commentEntries.add(entry);
+            }
+        }
+
+        ReactionCountBatchResultDTO result = new ReactionCountBatchResultDTO();
+        int appliedComments = applyCommentChanges(commentEntries, postChanges, result.getMissingCommentIds());
+        List<Long> missingPosts = applyPostChanges(postChanges);
+        result.getMissingPostIds().addAll(missingPosts);
+
+        Set<Long> missingPostSet = new TreeSet<>(missingPosts);
+        int appliedPosts = (int) entries.stream()
+                .filter(entry -> entry.getTargetType() == TargetType.POST)
+                .filter(entry -> !missingPostSet.contains(entry.getTargetId()))
+                .count();
+        result.setApplied(appliedComments + appliedPosts);
+        log.debug("Applied reaction count batch: {} post entries, {} comment entries, {} applied",
+                postEntries, commentEntries.size(), result.getApplied());
+        return result;
+    }
+
+    private int applyCommentChanges(List<ReactionCountBatchEntryDTO> commentEntries,
+                                    Map<Long, PostChange> postChanges,
+                                    List<Long> missingCommentIds) {
+        if (commentEntries.isEmpty()) {
+            return 0;
+        }
+        Map<Long, CommentState> current = lockComments(commentEntries);
+
+        Map<Long, Integer> newCounts = new TreeMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        int applied = 0;
+        for (ReactionCountBatchEntryDTO entry : commentEntries) {
+            CommentState state = current.get(entry.getTargetId());
+            if (state == null) {
+                missing.add(entry.getTargetId());
+                continue;
+            }
+            int updated = entry.getCount() != null ? entry.getCount() : state.reactionCount + entry.getDelta();
+            postChanges.computeIfAbsent(state.postId, id -> new PostChange()).commentDelta += updated - state.reactionCount;
+            state.reactionCount = updated;
+            newCounts.put(entry.getTargetId(), updated);
+            applied++;
+        }
+
+        List<Object[]> args = new ArrayList<>(newCounts.size());
+        newCounts.forEach((id, count) -> args.add(new Object[]{count, id}));
+        jdbcTemplate.batchUpdate(UPDATE_COMMENT, args, UPDATE_COMMENT_TYPES);
+        missingCommentIds.addAll(missing);
+        return applied;
+    }
+
+    private Map<Long, CommentState> lockComments(List<ReactionCountBatchEntryDTO> commentEntries) {
+        List<Long> ids = new ArrayList<>(new TreeSet<>(commentEntries.stream()
+                .map(ReactionCountBatchEntryDTO::getTargetId)
+                .toList()));
+        Map<Long, CommentState> current = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += LOCK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + LOCK_CHUNK_SIZE, ids.size()));
+            String sql = "SELECT id, post_id, reaction_count FROM comments WHERE id IN ("
+                    + String.join(",", Collections.nCopies(chunk.size(), "?")) + ") ORDER BY id FOR UPDATE";
+            jdbcTemplate.query(sql, rs -> {
+                current.put(rs.getLong("id"), new CommentState(rs.getLong("post_id"), rs.getInt("reaction_count")));
+            }, chunk.toArray());
+        }
+        return current;
+    }
+
+    private List<Long> applyPostChanges(Map<Long, PostChange> postChanges) {
+        List<Long> ids = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+        postChanges.forEach((id, change) -> {
+            if (!change.isNoop()) {
+                Integer newDirect = change.absoluteDirect != null ? change.absoluteDirect + change.directDelta : null;
+                ids.add(id);
+                args.add(new Object[]{change.commentDelta, newDirect, change.directDelta, newDirect, change.directDelta, id});
+            }
+        });
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_POST, args, UPDATE_POST_TYPES);
+
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            // Drivers that rewrite batches may report SUCCESS_NO_INFO (-2); only an explicit 0 means no row.
+            if (updated[i] == 0) {
+                missing.add(ids.get(i));
+            }
+        }
+        return missing;
+    }
+
+    private void validate(List<ReactionCountBatchEntryDTO> entries) throws UserException {
+        if (entries == null || entries.isEmpty()) {
+            throw new UserException("Reaction count batch must not be empty.");
+        }
+        if (entries.size() > maxEntries) {
+            throw new UserException("Reaction count batch exceeds " + maxEntries + " entries.");
+        }
+        for (ReactionCountBatchEntryDTO entry : entries) {
+            if (entry.getTargetType() == null || entry.getTargetId() == null) {
+                throw new UserException("Each reaction count entry needs a targetType and a targetId.");
+            }
+            if ((entry.getCount() == null) == (entry.getDelta() == null)) {
+                throw new UserException("Reaction count entry for " + entry.getTargetType() + " " + entry.getTargetId()
+                        + " must set exactly one of count or delta.");
+            }
+        }
+    }
+
+    private static class CommentState {
+        private final long postId;
+        private int reactionCount;
+
+        CommentState(long postId, int reactionCount) {
+            this.postId = postId;
+            this.reactionCount = reactionCount;
+        }
+    }
+
+    /**
+     * Net change for one post: an optional absolute direct count, a direct delta applied after
+     * it, and the sum of changes of its comments.
+     */
+    private static class PostChange {
+        private Integer absoluteDirect;
+        private int directDelta;
+        private int commentDelta;
+
+        void applyDirect(ReactionCountBatchEntryDTO entry) {
+            if (entry.getCount() != null) {
+                absoluteDirect = entry.getCount();
+                directDelta = 0;
+            } else {
+                directDelta += entry.getDelta();
+            }
+        }
+
+        boolean isNoop() {
+            return absoluteDirect == null && directDelta == 0 && commentDelta == 0;
+        }
+    }
+}
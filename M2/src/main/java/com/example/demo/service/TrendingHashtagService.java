@@ -0,0 +1,224 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.hashtagdto.TrendingHashtagDTO;
+import com.example.demo.errorhandler.UserException;
+import com.example.demo.search.HashtagIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Which hashtags are being used right now. Every tag has a ring of time buckets (one minute
+ * each over 24 hours by default) counting how often it was attached to a post; PostService
+ * feeds it on create and update. A trending query sums the buckets inside the window, each
+ * weighted by {@code 0.5^(age / halfLife)} with the half-life a fixed fraction of the window,
+ * and keeps the top k in a bounded heap.
+ *
+ * <p>Writers never lock: a bucket slot packs its bucket number and count into one long that
+ * is updated by compare-and-set, so a slot left over from the previous lap of the ring is
+ * reset by the same CAS that counts into it.
+ */
+@Service
+public class TrendingHashtagService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingHashtagService.class);
+
+    private static final Pattern WINDOW = Pattern.compile("(\\d{1,6})\\s*([mhd])");
+
+    private static final String SELECT_RECENT_TAGS =
+            "SELECT h.name, p.created_at FROM post_hashtags ph " +
+            "JOIN hashtags h ON h.id = ph.hashtag_id JOIN posts p ON p.id = ph.post_id " +
+            "WHERE p.created_at >= ?";
+
+    private final ConcurrentHashMap<String, BucketRing> rings = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final double halfLifeFraction;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public TrendingHashtagService(JdbcTemplate jdbcTemplate,
+                                  @Value("${m2.hashtags.trending.bucket-ms:60000}") long bucketMillis,
+                                  @Value("${m2.hashtags.trending.retention-ms:86400000}") long retentionMillis,
+                                  @Value("${m2.hashtags.trending.half-life-fraction:0.25}") double halfLifeFraction,
+                                  @Value("${m2.hashtags.trending.default-limit:10}") int defaultLimit,
+                                  @Value("${m2.hashtags.trending.max-limit:100}") int maxLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bucketMillis = bucketMillis;
+        this.bucketCount = (int) Math.max(1, retentionMillis / bucketMillis);
+        this.halfLifeFraction = halfLifeFraction;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Counts one use of each tag now.
+     */
+    public void recordTags(Collection<String> tags) {
+        long bucket = currentBucket();
+        for (String tag : tags) {
+            record(tag, bucket);
+        }
+    }
+
+    public List<TrendingHashtagDTO> getTrending(String window, Integer limit) throws UserException {
+        int buckets = parseWindowBuckets(window);
+        int size = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+
+        double halfLifeBuckets = Math.max(1.0, buckets * halfLifeFraction);
+        double[] weights = new double[buckets];
+        for (int age = 0; age < buckets; age++) {
+            weights[age] = Math.pow(0.5, age / halfLifeBuckets);
+        }
+
+        long current = currentBucket();
+        Comparator<TrendingHashtagDTO> ranking = Comparator.comparingDouble(TrendingHashtagDTO::getScore)
+                .thenComparingLong(TrendingHashtagDTO::getUses)
+                .thenComparing(TrendingHashtagDTO::getName, Comparator.reverseOrder());
+        PriorityQueue<TrendingHashtagDTO> top = new PriorityQueue<>(size + 1, ranking);
+        rings.forEach((tag, ring) -> {
+            if (ring.lastBucket() <= current - buckets) {
+                return;
+            }
+            long uses = 0;
+            double score = 0;
+            for (int age = 0; age < buckets; age++) {
+                long count = ring.countAt(current - age);
+                uses += count;
+                score += count * weights[age];
+            }
+            if (uses == 0) {
+                return;
+            }
+            top.offer(new TrendingHashtagDTO(tag, uses, score));
+            if (top.size() > size) {
+                top.poll();
+            }
+        });
+
+        List<TrendingHashtagDTO> result = new ArrayList<>(top);
+        result.sort(ranking.reversed());
+        return result;
+    }
+
+    /**
+     * Seeds the buckets from the posts created within the retention period, so a restart does
+     * not empty the trending list. Tags added to older posts by later edits are not recovered.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long since = System.currentTimeMillis() - (long) bucketCount * bucketMillis;
+        int[] rows = {0};
+        jdbcTemplate.query(SELECT_RECENT_TAGS, rs -> {
+            record(rs.getString("name"), rs.getTimestamp("created_at").getTime() / bucketMillis);
+            rows[0]++;
+        }, new Timestamp(since));
+        log.info("Trending hashtags warmed up from {} recent post tags", rows[0]);
+    }
+
+    /**
+     * Drops the rings of tags unused for a whole retention period. A use racing with the
+     * removal can be lost, which a trending list tolerates.
+     */
+    @Scheduled(initialDelayString = "${m2.hashtags.trending.cleanup-interval-ms:600000}",
+            fixedDelayString = "${m2.hashtags.trending.cleanup-interval-ms:600000}")
+    public void evictIdle() {
+        long oldest = currentBucket() - bucketCount;
+        rings.entrySet().removeIf(entry -> entry.getValue().lastBucket() <= oldest);
+    }
+
+    private void record(String tag, long bucket) {
+        String key = HashtagIndex.normalize(tag);
+        if (!key.isEmpty()) {
+            rings.computeIfAbsent(key, k -> new BucketRing(bucketCount)).add(bucket);
+        }
+    }
+
+    private long currentBucket() {
+        return System.currentTimeMillis() / bucketMillis;
+    }
+
+    private int parseWindowBuckets(String window) throws UserException {
+        if (window == null || window.isBlank()) {
+            return (int) Math.max(1, 3_600_000L / bucketMillis);
+        }
+        Matcher matcher = WINDOW.matcher(window.trim().toLowerCase(Locale.ROOT));
+        if (!matcher.matches()) {
+            throw new UserException("Invalid window: " + window + " (expected e.g. 15m, 1h or 1d)");
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        long unitMillis = switch (matcher.group(2)) {
+            case "m" -> 60_000L;
+            case "h" -> 3_600_000L;
+            default -> 86_400_000L;
+        };
+        long buckets = amount * unitMillis / bucketMillis;
+        if (buckets < 1 || buckets > bucketCount) {
+            throw new UserException("Window must be between " + bucketMillis / 60_000 + "m and "
+                    + bucketCount * bucketMillis / 3_600_000 + "h.");
+        }
+        return (int) buckets;
+    }
+
+    /**
+     * Per-tag counts, one slot per bucket modulo the ring size. A slot holds
+     * {@code bucket << 32 | count}; a count is only valid while the bucket number matches.
+     */
+    private static final class BucketRing {
+
+        private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+        private final AtomicLongArray slots;
+        private final AtomicLong lastBucket = new AtomicLong();
+
+        BucketRing(int size) {
+            this.slots = new AtomicLongArray(size);
+        }
+
+        void add(long bucket) {
+            int slot = (int) (bucket % slots.length());
+            long tagged = (bucket & COUNT_MASK) << 32;
+            while (true) {
+                long current = slots.get(slot);
+                long currentBucket = current >>> 32;
+                if (currentBucket > (bucket & COUNT_MASK)) {
+                    // Already reused by a newer bucket; only late warm-up rows get here.
+                    return;
+                }
+                long next = currentBucket == (bucket & COUNT_MASK) ? current + 1 : tagged | 1;
+                if (slots.compareAndSet(slot, current, next)) {
+                    break;
+                }
+            }
+            lastBucket.accumulateAndGet(bucket, Math::max);
+        }
+
+        long countAt(long bucket) {
+            long value = slots.get((int) (bucket % slots.length()));
+            return (value >>> 32) == (bucket & COUNT_MASK) ? value & COUNT_MASK : 0;
+        }
+
+        long lastBucket() {
+            return lastBucket.get();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Content-addressed storage for image bytes. Blobs are keyed by the SHA-256 of their content,
+ * so storing the same bytes twice yields the same key and keeps a single copy.
+ */
+public interface BlobStore {
+
+    StoredBlob store(InputStream content, String mimeType) throws IOException;
+
+    Optional<Resource> find(String hash);
+
+    /**
+     * Reads the whole blob into memory; empty if it is missing or unreadable.
+     */
+    Optional<byte[]> read(String hash);
+
+    boolean exists(String hash);
+}
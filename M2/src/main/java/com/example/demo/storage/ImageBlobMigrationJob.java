@@ -0,0 +1,120 @@
+package com.example.demo.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves images still held in the legacy {@code image} BLOB columns of {@code posts} and
+ * {@code comments} into the {@link BlobStore}, one batch at a time. Each row is rewritten with
+ * its hash, size and MIME type and the BLOB is nulled, so the job can be interrupted and
+ * re-run safely. Tables without the legacy column (fresh schemas) are skipped.
+ */
+@Component
+public class ImageBlobMigrationJob implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageBlobMigrationJob.class);
+
+    private static final String LEGACY_COLUMN = "image";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlobStore blobStore;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public ImageBlobMigrationJob(JdbcTemplate jdbcTemplate,
+                                 BlobStore blobStore,
+                                 @Value("${m2.blobstore.migration.enabled:true}") boolean enabled,
+                                 @Value("${m2.blobstore.migration.batch-size:50}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blobStore = blobStore;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            log.info("Image blob migration disabled");
+            return;
+        }
+        migrateTable("posts");
+        migrateTable("comments");
+    }
+
+    int migrateTable(String table) {
+        if (!hasLegacyColumn(table)) {
+            log.debug("Table {} has no legacy image column, nothing to migrate", table);
+            return 0;
+        }
+
+        String select = "SELECT id, " + LEGACY_COLUMN + " FROM " + table
+                + " WHERE " + LEGACY_COLUMN + " IS NOT NULL ORDER BY id LIMIT ?";
+        String update = "UPDATE " + table + " SET image_hash = ?, image_size = ?, image_mime_type = ?, "
+                + LEGACY_COLUMN + " = NULL WHERE id = ?";
+
+        int migrated = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(select, batchSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                Long id = ((Number) row.get("id")).longValue();
+                byte[] bytes = (byte[]) row.get(LEGACY_COLUMN);
+                if (bytes.length == 0) {
+                    updates.add(new Object[]{null, null, null, id});
+                    continue;
+                }
+                try {
+                    StoredBlob blob = blobStore.store(new ByteArrayInputStream(bytes), null);
+                    updates.add(new Object[]{blob.getHash(), blob.getSize(), blob.getMimeType(), id});
+                } catch (IOException e) {
+                    // Stop rather than loop forever on the same rows; the next start retries them.
+                    log.error("Could not move image of {} {} to the blob store, aborting migration: {}",
+                            table, id, e.getMessage(), e);
+                    jdbcTemplate.batchUpdate(update, updates);
+                    return migrated + updates.size();
+                }
+            }
+            jdbcTemplate.batchUpdate(update, updates);
+            migrated += updates.size();
+            log.info("Moved {} images from {} to the blob store ({} so far)", updates.size(), table, migrated);
+        }
+        if (migrated > 0) {
+            log.info("Image blob migration for {} finished, {} rows migrated", table, migrated);
+        }
+        return migrated;
+    }
+
+    private boolean hasLegacyColumn(String table) {
+        Boolean found = jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String tableName : new String[]{table, table.toUpperCase()}) {
+                for (String columnName : new String[]{LEGACY_COLUMN, LEGACY_COLUMN.toUpperCase()}) {
+                    try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, tableName, columnName)) {
+                        if (columns.next()) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(found);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLConnection;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps blobs under {@code m2.blobstore.root} as {@code ab/cd/abcd...}, sharded by the first
+ * bytes of the hash. Uploads are written to a temp file while hashing and then moved into
+ * place, so a blob is either fully present under its hash or absent.
+ */
+@Component
+public class LocalFileSystemBlobStore implements BlobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalFileSystemBlobStore.class);
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final String DEFAULT_MIME_TYPE = "application/octet-stream";
+
+    private final Path root;
+    private final Path tmpDir;
+
+    public LocalFileSystemBlobStore(@Value("${m2.blobstore.root:./blobstore}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.tmpDir = this.root.resolve("tmp");
+        Files.createDirectories(tmpDir);
+        log.info("Blob store rooted at {}", this.root);
+    }
+
+    @Override
+    public StoredBlob store(InputStream content, String mimeType) throws IOException {
+        InputStream input = content.markSupported() ? content : new BufferedInputStream(content);
+        if (mimeType == null || mimeType.isBlank()) {
+            mimeType = Optional.ofNullable(URLConnection.guessContentTypeFromStream(input)).orElse(DEFAULT_MIME_TYPE);
+        }
+
+        MessageDigest digest = newDigest();
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        long size;
+        try {
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), digest)) {
+                size = input.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathFor(hash);
+            if (Files.exists(target)) {
+                log.debug("Blob {} already stored, reusing existing copy", hash);
+            } else {
+                Files.createDirectories(target.getParent());
+                moveIntoPlace(tmp, target);
+            }
+            return new StoredBlob(hash, size, mimeType);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public Optional<Resource> find(String hash) {
+        if (!isValidHash(hash)) {
+            return Optional.empty();
+        }
+        Path path = pathFor(hash);
+        return Files.isRegularFile(path) ? Optional.of(new FileSystemResource(path)) : Optional.empty();
+    }
+
+    @Override
+    public Optional<byte[]> read(String hash) {
+        Optional<Resource> resource = find(hash);
+        if (resource.isEmpty()) {
+            log.warn("Blob {} is missing from the blob store", hash);
+            return Optional.empty();
+        }
+        try (InputStream in = resource.get().getInputStream()) {
+            return Optional.of(in.readAllBytes());
+        } catch (IOException e) {
+            log.warn("Could not read blob {}: {}", hash, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return isValidHash(hash) && Files.isRegularFile(pathFor(hash));
+    }
+
+    private void moveIntoPlace(Path tmp, Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Another upload of the same content won the race; its copy is identical.
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(tmp, target);
+            } catch (FileAlreadyExistsException ignored) {
+                // Same as above.
+            }
+        }
+    }
+
+    private Path pathFor(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private boolean isValidHash(String hash) {
+        return hash != null && HASH_PATTERN.matcher(hash).matches();
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StoredBlob {
+    private String hash;
+    private long size;
+    private String mimeType;
+}
@@ -0,0 +1,51 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HashtagIndexTest {
+
+    private HashtagIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new HashtagIndex();
+        index.setTags(1, List.of("Java", "#spring"));
+        index.setTags(2, List.of("java"));
+        index.setTags(3, List.of("spring", "kotlin"));
+    }
+
+    @Test
+    public void test_find_combinesTagsWithAndOrNot() {
+        assertThat(index.find(List.of("java", "spring"), HashtagMatch.ALL, null, Long.MAX_VALUE, 10)).containsExactly(1L);
+        assertThat(index.find(List.of("java", "spring"), HashtagMatch.ANY, null, Long.MAX_VALUE, 10)).containsExactly(3L, 2L, 1L);
+        assertThat(index.find(List.of("#JAVA", "spring"), HashtagMatch.ANY, List.of("kotlin"), Long.MAX_VALUE, 10)).containsExactly(2L, 1L);
+        assertThat(index.find(List.of("java", "missing"), HashtagMatch.ALL, null, Long.MAX_VALUE, 10)).isEmpty();
+    }
+
+    @Test
+    public void test_setTagsAndRemove_replacePreviousTags() {
+        index.setTags(1, List.of("kotlin"));
+        index.remove(2);
+
+        assertThat(index.find(List.of("java"), HashtagMatch.ANY, null, Long.MAX_VALUE, 10)).isEmpty();
+        assertThat(index.find(List.of("kotlin"), HashtagMatch.ANY, null, Long.MAX_VALUE, 10)).containsExactly(3L, 1L);
+    }
+
+    @Test
+    public void test_find_pagesNewestFirstAcrossDenseAndSparseRanges() {
+        // Over 4096 ids in one 2^16 range force a bitmap container; 70000 lands in a second container.
+        LongStream.rangeClosed(1000, 11000).forEach(id -> index.setTags(id, List.of("busy")));
+        index.setTags(70000, List.of("busy"));
+
+        assertThat(index.countPosts("busy")).isEqualTo(10002);
+        assertThat(index.find(List.of("busy"), HashtagMatch.ANY, null, Long.MAX_VALUE, 3)).containsExactly(70000L, 11000L, 10999L);
+        assertThat(index.find(List.of("busy"), HashtagMatch.ANY, null, 10999L, 2)).containsExactly(10998L, 10997L);
+        assertThat(index.find(List.of("busy", "spring"), HashtagMatch.ALL, null, Long.MAX_VALUE, 10)).isEmpty();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PostSearchIndexTest {
+
+    private PostSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new PostSearchIndex(200, 1000, new RelevanceWeights(1.2, 0.75, 72, 1.0, 0.2));
+        index.index(1, "Spring Boot policies explained", 1000L, 5);
+        index.index(2, "Boots for winter hiking", 2000L, 1);
+        index.index(3, "Spring boot starter for policy checks", 3000L, 9);
+        index.index(4, "Hiking in spring", 4000L, 0);
+    }
+
+    @Test
+    public void test_searchRecent_requiresAllTermsNewestFirst() {
+        assertThat(index.searchRecent("spring boot ", Long.MAX_VALUE, 10)).containsExactly(3L, 1L);
+        assertThat(index.searchRecent("spring boot ", 3L, 10)).containsExactly(1L);
+    }
+
+    @Test
+    public void test_searchRecent_stemsPluralsAndMatchesLastTermAsPrefix() {
+        assertThat(index.searchRecent("policies ", Long.MAX_VALUE, 10)).containsExactly(3L, 1L);
+        assertThat(index.searchRecent("hik", Long.MAX_VALUE, 10)).containsExactly(4L, 2L);
+    }
+
+    @Test
+    public void test_searchRecent_phraseRequiresAdjacentTermsInOrder() {
+        assertThat(index.searchRecent("\"boot spring\"", Long.MAX_VALUE, 10)).isEmpty();
+        assertThat(index.searchRecent("\"spring boot st", Long.MAX_VALUE, 10)).containsExactly(3L);
+    }
+
+    @Test
+    public void test_searchByReactions_ranksAndPages() {
+        assertThat(index.searchByReactions("spring ", 0, 2)).containsExactly(3L, 1L);
+        assertThat(index.searchByReactions("spring ", 2, 2)).containsExactly(4L);
+    }
+
+    @Test
+    public void test_searchByRelevance_prefersPostsWhereTermsAreDenser() {
+        index.index(5, "Winter winter winter", 5000L, 0);
+        index.index(6, "A long post that mentions winter once among many other unrelated words", 5000L, 0);
+
+        assertThat(index.searchByRelevance("winter ", 0, 10)).startsWith(5L).contains(2L, 6L);
+    }
+
+    @Test
+    public void test_searchByRelevance_boostsReactedPostsOnEqualText() {
+        index.index(5, "Kotlin coroutines", 5000L, 0);
+        index.index(6, "Kotlin coroutines", 5000L, 50);
+
+        assertThat(index.searchByRelevance("kotlin coroutines ", 0, 10)).containsExactly(6L, 5L);
+    }
+
+    @Test
+    public void test_reindexAndRemove_updatePostings() {
+        index.index(3, "Completely different text", 3000L, 9);
+        index.remove(1);
+
+        assertThat(index.searchRecent("spring boot ", Long.MAX_VALUE, 10)).isEmpty();
+        assertThat(index.searchRecent("different ", Long.MAX_VALUE, 10)).containsExactly(3L);
+    }
+}
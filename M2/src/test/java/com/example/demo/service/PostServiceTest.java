@@ -0,0 +1,98 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.postdto.PostPageDTO;
+import com.example.demo.entity.Hashtag;
+import com.example.demo.entity.Post;
+import com.example.demo.entity.Role;
+import com.example.demo.entity.User;
+import com.example.demo.errorhandler.UserException;
+import com.example.demo.utils.DataTest;
+import jakarta.annotation.Resource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PostServiceTest extends BaseTest {
+
+    // One query for the page of posts, one batch for hashtags, one batch for comments.
+    private static final long FEED_PAGE_STATEMENTS = 3;
+
+    @Resource
+    DataTest dataTest;
+
+    @Resource
+    PostService postService;
+
+    @Resource
+    EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    private User user;
+    private Hashtag java;
+    private Hashtag spring;
+
+    @BeforeEach
+    public void setUp() {
+        Role role = dataTest.createRole("USER");
+        user = dataTest.createUser("name", "email", "password", role);
+        java = dataTest.createHashtag("java");
+        spring = dataTest.createHashtag("spring");
+    }
+
+    @Test
+    public void test_getAllPosts_loadsPageInConstantNumberOfStatements() throws UserException {
+        createPostsWithComments(2);
+        long smallPageStatements = countStatements(() -> postService.getAllPosts(null, 20));
+
+        createPostsWithComments(15);
+        long largePageStatements = countStatements(() -> postService.getAllPosts(null, 20));
+
+        assertThat(smallPageStatements).isEqualTo(FEED_PAGE_STATEMENTS);
+        assertThat(largePageStatements).isEqualTo(FEED_PAGE_STATEMENTS);
+    }
+
+    @Test
+    public void test_getAllPosts_returnsHashtagsAndCommentsForEveryPost() throws UserException {
+        createPostsWithComments(5);
+        entityManager.flush();
+        entityManager.clear();
+
+        PostPageDTO page = postService.getAllPosts(null, 20);
+
+        assertThat(page.getPosts()).hasSize(5);
+        assertThat(page.getPosts()).allSatisfy(post -> {
+            assertThat(post.getHashtags()).containsExactlyInAnyOrder("java", "spring");
+            assertThat(post.getComments()).hasSize(2);
+        });
+    }
+
+    private void createPostsWithComments(int count) {
+        for (int i = 0; i < count; i++) {
+            Post post = dataTest.createPost("post " + i, user, java, spring);
+            dataTest.createComment("first comment", user, post);
+            dataTest.createComment("second comment", user, post);
+        }
+    }
+
+    private long countStatements(FeedCall call) throws UserException {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @FunctionalInterface
+    private interface FeedCall {
+        void run() throws UserException;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.hashtagdto.TrendingHashtagDTO;
+import com.example.demo.errorhandler.UserException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TrendingHashtagServiceTest {
+
+    private TrendingHashtagService trendingHashtagService;
+
+    @BeforeEach
+    public void setUp() {
+        trendingHashtagService = new TrendingHashtagService(null, 60_000, 86_400_000, 0.25, 10, 100);
+    }
+
+    @Test
+    public void test_getTrending_ranksTagsByUsesInWindow() throws UserException {
+        trendingHashtagService.recordTags(List.of("#Java", "spring"));
+        trendingHashtagService.recordTags(List.of("java"));
+        trendingHashtagService.recordTags(List.of("java", "kotlin"));
+
+        List<TrendingHashtagDTO> trending = trendingHashtagService.getTrending("1h", 2);
+
+        assertThat(trending).extracting(TrendingHashtagDTO::getName).containsExactly("java", "kotlin");
+        assertThat(trending.get(0).getUses()).isEqualTo(3);
+    }
+
+    @Test
+    public void test_getTrending_rejectsWindowsOutsideRetention() {
+        assertThatThrownBy(() -> trendingHashtagService.getTrending("2d", null)).isInstanceOf(UserException.class);
+        assertThatThrownBy(() -> trendingHashtagService.getTrending("soon", null)).isInstanceOf(UserException.class);
+        assertThatThrownBy(() -> trendingHashtagService.getTrending("99999999999999999999m", null))
+                .isInstanceOf(UserException.class);
+    }
+}
@@ -1,7 +1,14 @@
 package com.example.demo.utils;
 
+import com.example.demo.entity.Comment;
+import com.example.demo.entity.Hashtag;
+import com.example.demo.entity.Post;
+import com.example.demo.entity.PostType;
 import com.example.demo.entity.Role;
 import com.example.demo.entity.User;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.HashtagRepository;
+import com.example.demo.repository.PostRepository;
 import com.example.demo.repository.RoleRepository;
 import com.example.demo.repository.UserRepository;
 import jakarta.annotation.Resource;
@@ -18,6 +25,15 @@ public class DataTest {
     @Resource
     private UserRepository userRepository ;
 
+    @Resource
+    private PostRepository postRepository;
+
+    @Resource
+    private CommentRepository commentRepository;
+
+    @Resource
+    private HashtagRepository hashtagRepository;
+
     public Role createRole(String roleName)
     {
         Role role = Role.builder().name(roleName).build();
@@ -29,4 +45,30 @@ public class DataTest {
         User user = User.builder().name(name).email(email).password(password).role(role).timeStamp(LocalDateTime.now()).build();
         return userRepository.save(user);
     }
-}
\ No newline at end of file
+
+    public Hashtag createHashtag(String name)
+    {
+        return hashtagRepository.save(new Hashtag(name));
+    }
+
+    public Post createPost(String content, User user, Hashtag... hashtags)
+    {
+        Post post = new Post();
+        post.setContent(content);
+        post.setPostType(PostType.TEXT);
+        post.setUser(user);
+        for (Hashtag hashtag : hashtags) {
+            post.addHashtag(hashtag);
+        }
+        return postRepository.save(post);
+    }
+
+    public Comment createComment(String content, User user, Post post)
+    {
+        Comment comment = new Comment();
+        comment.setContent(content);
+        comment.setUser(user);
+        post.addComment(comment);
+        return commentRepository.save(comment);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.metricsdto.ReactionOutboxStatsDTO;
+import com.example.demo.service.HotTargetDetector;
+import com.example.demo.service.ReactionOutboxRelay;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/m3/admin/metrics")
+public class MetricsController {
+
+    private final ReactionOutboxRelay reactionOutboxRelay;
+    private final HotTargetDetector hotTargetDetector;
+
+    public MetricsController(ReactionOutboxRelay reactionOutboxRelay,
+                             HotTargetDetector hotTargetDetector) {
+        this.reactionOutboxRelay = reactionOutboxRelay;
+        this.hotTargetDetector = hotTargetDetector;
+    }
+
+    @GetMapping("/reaction-outbox")
+    public ResponseEntity<ReactionOutboxStatsDTO> getReactionOutboxStats() {
+        return ResponseEntity.ok(reactionOutboxRelay.getStats());
+    }
+
+    @GetMapping("/hot-targets")
+    public ResponseEntity<Integer> getHotTargetCount() {
+        return ResponseEntity.ok(hotTargetDetector.getHotTargetCount());
+    }
+}
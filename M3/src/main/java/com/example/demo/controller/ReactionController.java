@@ -2,6 +2,8 @@ package com.example.demo.controller;
 
 
 import com.example.demo.dto.reaction.ReactionInputDTO;
+import com.example.demo.dto.reaction.ReactionSummaryDTO;
+import com.example.demo.dto.reaction.ReactionTargetDTO;
 import com.example.demo.dto.reaction.ReactionViewDTO;
 import com.example.demo.entity.TargetType;
 import com.example.demo.errorhandler.ReactionException;
@@ -68,4 +70,30 @@ public class ReactionController {
         long count = reactionService.getReactionCountForTarget(targetId, targetType);
         return ResponseEntity.ok(count);
     }
+
+    @GetMapping("/target/{targetType}/{targetId}/summary")
+    public ResponseEntity<ReactionSummaryDTO> getReactionSummaryForTarget(@PathVariable TargetType targetType,
+                                                                         @PathVariable Long targetId) {
+        return ResponseEntity.ok(reactionService.getReactionSummaryForTarget(targetId, targetType));
+    }
+
+    @PostMapping("/summary")
+    public ResponseEntity<?> getReactionSummaries(@RequestBody List<ReactionTargetDTO> targets) {
+        try {
+            return ResponseEntity.ok(reactionService.getReactionSummaries(targets));
+        } catch (ReactionException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/mine")
+    public ResponseEntity<?> getMyReactions(@RequestBody List<ReactionTargetDTO> targets,
+                                            HttpServletRequest request) throws ReactionException {
+        Long userId = getCurrentUserId(request);
+        try {
+            return ResponseEntity.ok(reactionService.getUserReactionsForTargets(userId, targets));
+        } catch (ReactionException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
 }
\ No newline at end of file
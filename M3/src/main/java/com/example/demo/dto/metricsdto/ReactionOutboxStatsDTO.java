@@ -0,0 +1,18 @@
+package com.example.demo.dto.metricsdto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReactionOutboxStatsDTO {
+    private long pendingEvents;
+    private long oldestPendingAgeMs;
+    private long lastDeliveryLagMs;
+    private long eventsDelivered;
+    private long batchesSent;
+    private long batchesFailed;
+    private double coalescingRatio;
+}
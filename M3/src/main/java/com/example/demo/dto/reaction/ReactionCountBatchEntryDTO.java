@@ -0,0 +1,23 @@
+package com.example.demo.dto.reaction;
+
+import com.example.demo.entity.TargetType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a reaction count batch sent to M2. Exactly one of {@code count} or {@code delta} is set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReactionCountBatchEntryDTO {
+    private TargetType targetType;
+    private Long targetId;
+    private Integer count;
+    private Integer delta;
+
+    public static ReactionCountBatchEntryDTO absolute(TargetType targetType, Long targetId, int count) {
+        return new ReactionCountBatchEntryDTO(targetType, targetId, count, null);
+    }
+}
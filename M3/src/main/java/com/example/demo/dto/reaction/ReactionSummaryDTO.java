@@ -0,0 +1,21 @@
+package com.example.demo.dto.reaction;
+
+import com.example.demo.entity.ReactionType;
+import com.example.demo.entity.TargetType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReactionSummaryDTO {
+    private TargetType targetType;
+    private Long targetId;
+    private long total;
+    private Map<ReactionType, Long> counts;
+}
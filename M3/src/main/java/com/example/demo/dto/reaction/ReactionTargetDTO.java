@@ -0,0 +1,14 @@
+package com.example.demo.dto.reaction;
+
+import com.example.demo.entity.TargetType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReactionTargetDTO {
+    private TargetType targetType;
+    private Long targetId;
+}
@@ -10,6 +10,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "reactions", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"userId", "targetId", "targetType"})
+}, indexes = {
+        @Index(name = "idx_reactions_user_target", columnList = "userId, targetType, targetId")
 })
 @Data
 @NoArgsConstructor
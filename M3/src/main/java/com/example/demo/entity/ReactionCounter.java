@@ -0,0 +1,28 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Periodic snapshot of the in-memory reaction total of one target. Written by
+ * {@link com.example.demo.service.ReactionCounterStore}; the reactions table stays authoritative.
+ */
+@Entity
+@Table(name = "reaction_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReactionCounter {
+
+    @EmbeddedId
+    private ReactionCounterId id;
+
+    @Column(nullable = false)
+    private long reactionCount;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,28 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One shard of the number of reactions of one type on one target, kept in step with the
+ * reactions table inside the same transaction by
+ * {@link com.example.demo.service.ReactionBreakdownService}. The count of a type is the sum of
+ * its shards.
+ */
+@Entity
+@Table(name = "reaction_type_count_shards", indexes = {
+        @Index(name = "idx_reaction_type_count_shards_target", columnList = "targetType, targetId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReactionTypeCount {
+
+    @EmbeddedId
+    private ReactionTypeCountId id;
+
+    @Column(nullable = false)
+    private long reactionCount;
+}
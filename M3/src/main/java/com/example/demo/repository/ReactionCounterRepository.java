@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ReactionCounter;
+import com.example.demo.entity.ReactionCounterId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReactionCounterRepository extends JpaRepository<ReactionCounter, ReactionCounterId> {
+}
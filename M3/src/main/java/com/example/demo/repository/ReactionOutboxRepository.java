@@ -0,0 +1,33 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ReactionOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReactionOutboxRepository extends JpaRepository<ReactionOutboxEvent, Long> {
+
+    List<ReactionOutboxEvent> findByNextAttemptAtLessThanEqualOrderByIdAsc(LocalDateTime now, Pageable pageable);
+
+    Optional<ReactionOutboxEvent> findFirstByOrderByIdAsc();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ReactionOutboxEvent e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReactionOutboxEvent e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt WHERE e.id IN :ids")
+    int scheduleRetry(@Param("ids") Collection<Long> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,8 +19,16 @@ public interface ReactionRepository extends JpaRepository<Reaction, Long> {
 
     List<Reaction> findAllByTargetIdAndTargetType(Long targetId, TargetType targetType);
 
+    List<Reaction> findByUserIdAndTargetTypeAndTargetIdIn(Long userId, TargetType targetType, Collection<Long> targetIds);
+
     long countByTargetIdAndTargetType(Long targetId, TargetType targetType);
 
+    /**
+     * Reaction totals of every target, as {@code [targetType, targetId, count]} rows.
+     */
+    @Query("SELECT r.targetType, r.targetId, COUNT(r) FROM Reaction r GROUP BY r.targetType, r.targetId")
+    List<Object[]> countAllGroupedByTarget();
+
     void deleteByUserIdAndTargetIdAndTargetType(Long userId, Long targetId, TargetType targetType);
 
     @Modifying
@@ -0,0 +1,25 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ReactionTypeCount;
+import com.example.demo.entity.ReactionTypeCountId;
+import com.example.demo.entity.TargetType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReactionTypeCountRepository extends JpaRepository<ReactionTypeCount, ReactionTypeCountId> {
+
+    List<ReactionTypeCount> findByIdTargetTypeAndIdTargetId(TargetType targetType, Long targetId);
+
+    List<ReactionTypeCount> findByIdTargetTypeAndIdTargetIdIn(TargetType targetType, Collection<Long> targetIds);
+
+    @Modifying
+    @Query("DELETE FROM ReactionTypeCount c WHERE c.id.targetType = :targetType AND c.id.targetId = :targetId")
+    void deleteAllForTarget(@Param("targetType") TargetType targetType, @Param("targetId") Long targetId);
+}
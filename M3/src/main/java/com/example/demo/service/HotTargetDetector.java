@@ -0,0 +1,68 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.TargetType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the reaction write rate per target over one-second windows. A target whose rate
+ * reaches {@code m3.reactions.hot.threshold-per-second} stays hot for
+ * {@code m3.reactions.hot.cooldown-ms} after the last window that crossed the threshold.
+ */
+@Component
+public class HotTargetDetector {
+
+    private static final long WINDOW_MS = 1000;
+
+    private record Key(TargetType type, Long id) {
+    }
+
+    private static final class Rate {
+        private long windowStart;
+        private int count;
+        private long hotUntil;
+    }
+
+    private final int thresholdPerSecond;
+    private final long cooldownMs;
+    private final Map<Key, Rate> rates = new ConcurrentHashMap<>();
+
+    public HotTargetDetector(@Value("${m3.reactions.hot.threshold-per-second:50}") int thresholdPerSecond,
+                             @Value("${m3.reactions.hot.cooldown-ms:60000}") long cooldownMs) {
+        this.thresholdPerSecond = thresholdPerSecond;
+        this.cooldownMs = cooldownMs;
+    }
+
+    /**
+     * Counts one write to the target and returns whether the target is currently hot.
+     */
+    public boolean recordWrite(TargetType targetType, Long targetId) {
+        long now = System.currentTimeMillis();
+        Rate rate = rates.computeIfAbsent(new Key(targetType, targetId), key -> new Rate());
+        synchronized (rate) {
+            if (now - rate.windowStart >= WINDOW_MS) {
+                rate.windowStart = now;
+                rate.count = 0;
+            }
+            if (++rate.count >= thresholdPerSecond) {
+                rate.hotUntil = now + cooldownMs;
+            }
+            return now < rate.hotUntil;
+        }
+    }
+
+    public int getHotTargetCount() {
+        long now = System.currentTimeMillis();
+        return (int) rates.values().stream().filter(rate -> now < rate.hotUntil).count();
+    }
+
+    @Scheduled(fixedDelayString = "${m3.reactions.hot.cleanup-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        rates.values().removeIf(rate -> now - rate.windowStart >= WINDOW_MS && now >= rate.hotUntil);
+    }
+}
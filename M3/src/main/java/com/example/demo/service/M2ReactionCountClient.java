@@ -0,0 +1,58 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.reaction.ReactionCountBatchEntryDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+@Component
+public class M2ReactionCountClient {
+
+    private static final Logger log = LoggerFactory.getLogger(M2ReactionCountClient.class);
+
+    private final RestTemplate restTemplate;
+    private final String m2ServiceUrl;
+
+    public M2ReactionCountClient(RestTemplate restTemplate,
+                                 @Value("${m2.service.url}") String m2ServiceUrl) {
+        this.restTemplate = restTemplate;
+        this.m2ServiceUrl = m2ServiceUrl;
+    }
+
+    /**
+     * Sends many counts to M2 in one request, applied there in a single transaction.
+     *
+     * @return {@code false} when the whole batch should be retried; targets M2 no longer has are
+     * reported back by M2 and count as done
+     */
+    public boolean pushReactionCounts(List<ReactionCountBatchEntryDTO> entries) {
+        if (entries.isEmpty()) {
+            return true;
+        }
+        String url = m2ServiceUrl + "/api/m2/reaction-counts/batch";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<List<ReactionCountBatchEntryDTO>> entity = new HttpEntity<>(entries, headers);
+
+        try {
+            restTemplate.exchange(url, HttpMethod.POST, entity, Void.class);
+            log.debug("Pushed batch of {} reaction counts to M2", entries.size());
+            return true;
+        } catch (HttpClientErrorException e) {
+            log.warn("M2 rejected reaction count batch of {} entries: {}", entries.size(), e.getStatusCode());
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to push reaction count batch of {} entries to M2: {}", entries.size(), e.getMessage());
+            return false;
+        }
+    }
+}
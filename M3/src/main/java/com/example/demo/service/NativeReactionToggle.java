@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Reaction;
+import com.example.demo.entity.ReactionType;
+import com.example.demo.entity.TargetType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * MySQL toggle of a user's reaction on a target. It uses statements whose outcome is decided
+ * by the unique key instead of a read followed by a write:
+ * <ol>
+ *     <li>a delete conditioned on the same reaction type (toggle off, done in one statement),</li>
+ *     <li>an {@code INSERT IGNORE} (first reaction, done in two),</li>
+ *     <li>only if a row already exists, a locked read and an update of its type.</li>
+ * </ol>
+ * Concurrent requests for the same user and target never fail on the unique constraint: the
+ * loser of an insert race sees the winner's row in step 3. Run under READ COMMITTED so the
+ * delete of a missing row takes no gap lock that two inserts could deadlock on.
+ */
+@Component
+public class NativeReactionToggle {
+
+    public enum Outcome {
+        CREATED,
+        REMOVED,
+        CHANGED,
+        UNCHANGED
+    }
+
+    /**
+     * @param previousType the type before the toggle, {@code null} if there was no reaction
+     * @param reaction     the resulting reaction, {@code null} if there is none afterwards
+     */
+    public record Result(Outcome outcome, ReactionType previousType, Reaction reaction) {
+    }
+
+    private static final String DELETE_SAME_TYPE =
+            "DELETE FROM reactions WHERE user_id = ? AND target_id = ? AND target_type = ? AND reaction_type = ?";
+    private static final String INSERT_IGNORE =
+            "INSERT IGNORE INTO reactions (user_id, target_id, target_type, reaction_type, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_FOR_UPDATE =
+            "SELECT id, reaction_type, created_at, updated_at FROM reactions " +
+            "WHERE user_id = ? AND target_id = ? AND target_type = ? FOR UPDATE";
+    private static final String UPDATE_TYPE =
+            "UPDATE reactions SET reaction_type = ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NativeReactionToggle(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Result toggle(Long userId, TargetType targetType, Long targetId, ReactionType reactionType) {
+        if (jdbcTemplate.update(DELETE_SAME_TYPE, userId, targetId, targetType.name(), reactionType.name()) > 0) {
+            return new Result(Outcome.REMOVED, reactionType, null);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int inserted = jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_IGNORE, Statement.RETURN_GENERATED_KEYS);
+            ps.setLong(1, userId);
+            ps.setLong(2, targetId);
+            ps.setString(3, targetType.name());
+            ps.setString(4, reactionType.name());
+            ps.setObject(5, now);
+            ps.setObject(6, now);
+            return ps;
+        }, keyHolder);
+        if (inserted > 0) {
+            Reaction created = Reaction.builder()
+                    .id(keyHolder.getKey().longValue())
+                    .userId(userId)
+                    .targetId(targetId)
+                    .targetType(targetType)
+                    .reactionType(reactionType)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            return new Result(Outcome.CREATED, null, created);
+        }
+
+        // A row exists: an older reaction of another type, or one a concurrent request just created.
+        RowMapper<Reaction> rowMapper = (rs, rowNum) -> Reaction.builder()
+                .id(rs.getLong("id"))
+                .userId(userId)
+                .targetId(targetId)
+                .targetType(targetType)
+                .reactionType(ReactionType.valueOf(rs.getString("reaction_type")))
+                .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                .build();
+        List<Reaction> rows = jdbcTemplate.query(SELECT_FOR_UPDATE, rowMapper, userId, targetId, targetType.name());
+        if (rows.isEmpty()) {
+            // Removed again by a concurrent request between the insert and the read.
+            return new Result(Outcome.UNCHANGED, null, null);
+        }
+        Reaction existing = rows.get(0);
+        if (existing.getReactionType() == reactionType) {
+            return new Result(Outcome.UNCHANGED, reactionType, existing);
+        }
+        ReactionType previousType = existing.getReactionType();
+        jdbcTemplate.update(UPDATE_TYPE, reactionType.name(), now, existing.getId());
+        existing.setReactionType(reactionType);
+        existing.setUpdatedAt(now);
+        return new Result(Outcome.CHANGED, previousType, existing);
+    }
+}
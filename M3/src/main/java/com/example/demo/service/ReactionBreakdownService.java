@@ -0,0 +1,197 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.reaction.ReactionSummaryDTO;
+import com.example.demo.dto.reaction.ReactionTargetDTO;
+import com.example.demo.entity.ReactionType;
+import com.example.demo.entity.ReactionTypeCount;
+import com.example.demo.entity.TargetType;
+import com.example.demo.errorhandler.ReactionException;
+import com.example.demo.repository.ReactionTypeCountRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Maintains {@code reaction_type_count_shards}, the per-{@link ReactionType} breakdown of every
+ * target. Writes are single-row atomic increments that run in the caller's transaction, so the
+ * breakdown commits or rolls back together with the reaction itself.
+ * <p>
+ * Ordinary targets keep one row per type (shard 0). Once {@link HotTargetDetector} flags a
+ * target, its writes go to a random one of {@code m3.reactions.hot.shards} rows, so concurrent
+ * transactions stop queueing on a single row lock. Reads always sum every shard, so a target
+ * can move between modes at any time; a single shard may go negative, the sum cannot.
+ */
+@Service
+public class ReactionBreakdownService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactionBreakdownService.class);
+
+    private static final String INCREMENT =
+            "UPDATE reaction_type_count_shards SET reaction_count = reaction_count + ? " +
+            "WHERE target_type = ? AND target_id = ? AND reaction_type = ? AND shard = ?";
+    private static final String INSERT =
+            "INSERT INTO reaction_type_count_shards (target_type, target_id, reaction_type, shard, reaction_count) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReactionTypeCountRepository reactionTypeCountRepository;
+    private final HotTargetDetector hotTargetDetector;
+    private final int maxSummaryTargets;
+    private final int shardCount;
+
+    public ReactionBreakdownService(JdbcTemplate jdbcTemplate,
+                                    ReactionTypeCountRepository reactionTypeCountRepository,
+                                    HotTargetDetector hotTargetDetector,
+                                    @Value("${m3.reactions.summary.max-targets:500}") int maxSummaryTargets,
+                                    @Value("${m3.reactions.hot.shards:16}") int shardCount) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reactionTypeCountRepository = reactionTypeCountRepository;
+        this.hotTargetDetector = hotTargetDetector;
+        this.maxSummaryTargets = maxSummaryTargets;
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Fills the table from the reactions table the first time it is deployed.
+     */
+    @PostConstruct
+    void backfill() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reaction_type_count_shards", Integer.class);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        int rows = jdbcTemplate.update(
+                "INSERT INTO reaction_type_count_shards (target_type, target_id, reaction_type, shard, reaction_count) " +
+                "SELECT target_type, target_id, reaction_type, 0, COUNT(*) FROM reactions " +
+                "GROUP BY target_type, target_id, reaction_type");
+        if (rows > 0) {
+            log.info("Backfilled {} reaction type counts", rows);
+        }
+    }
+
+    public void increment(TargetType targetType, Long targetId, ReactionType reactionType) {
+        add(targetType, targetId, reactionType, 1);
+    }
+
+    public void decrement(TargetType targetType, Long targetId, ReactionType reactionType) {
+        add(targetType, targetId, reactionType, -1);
+    }
+
+    /**
+     * Moves one reaction from {@code from} to {@code to}. Both rows are updated in a fixed order
+     * (type name, then shard), so concurrent opposite changes on the same target lock them in the
+     * same order instead of deadlocking.
+     */
+    public void changeType(TargetType targetType, Long targetId, ReactionType from, ReactionType to) {
+        int fromShard = selectShard(targetType, targetId);
+        int toShard = selectShard(targetType, targetId);
+        int order = from.name().compareTo(to.name());
+        if (order < 0 || (order == 0 && fromShard <= toShard)) {
+            apply(targetType, targetId, from, fromShard, -1);
+            apply(targetType, targetId, to, toShard, 1);
+        } else {
+            apply(targetType, targetId, to, toShard, 1);
+            apply(targetType, targetId, from, fromShard, -1);
+        }
+    }
+
+    public void deleteAllForTarget(TargetType targetType, Long targetId) {
+        reactionTypeCountRepository.deleteAllForTarget(targetType, targetId);
+    }
+
+    public ReactionSummaryDTO getSummary(TargetType targetType, Long targetId) {
+        return toSummary(targetType, targetId,
+                reactionTypeCountRepository.findByIdTargetTypeAndIdTargetId(targetType, targetId));
+    }
+
+    /**
+     * Summaries for many targets, in request order with duplicates dropped. Runs one indexed
+     * {@code IN} query per target type present in the request.
+     */
+    public List<ReactionSummaryDTO> getSummaries(List<ReactionTargetDTO> targets) throws ReactionException {
+        if (targets == null || targets.isEmpty()) {
+            return List.of();
+        }
+        if (targets.size() > maxSummaryTargets) {
+            throw new ReactionException("At most " + maxSummaryTargets + " targets can be summarized per request.");
+        }
+        Set<ReactionTargetDTO> distinct = new LinkedHashSet<>();
+        Map<TargetType, Set<Long>> idsByType = new EnumMap<>(TargetType.class);
+        for (ReactionTargetDTO target : targets) {
+            if (target == null || target.getTargetType() == null || target.getTargetId() == null) {
+                throw new ReactionException("Each target needs a targetType and a targetId.");
+            }
+            distinct.add(target);
+            idsByType.computeIfAbsent(target.getTargetType(), type -> new LinkedHashSet<>()).add(target.getTargetId());
+        }
+
+        Map<ReactionTargetDTO, List<ReactionTypeCount>> rowsByTarget = new HashMap<>();
+        idsByType.forEach((type, ids) -> {
+            for (ReactionTypeCount row : reactionTypeCountRepository.findByIdTargetTypeAndIdTargetIdIn(type, ids)) {
+                rowsByTarget.computeIfAbsent(new ReactionTargetDTO(type, row.getId().getTargetId()), key -> new ArrayList<>())
+                        .add(row);
+            }
+        });
+
+        List<ReactionSummaryDTO> summaries = new ArrayList<>(distinct.size());
+        for (ReactionTargetDTO target : distinct) {
+            summaries.add(toSummary(target.getTargetType(), target.getTargetId(),
+                    rowsByTarget.getOrDefault(target, List.of())));
+        }
+        return summaries;
+    }
+
+    private ReactionSummaryDTO toSummary(TargetType targetType, Long targetId, List<ReactionTypeCount> rows) {
+        Map<ReactionType, Long> counts = new EnumMap<>(ReactionType.class);
+        long total = 0;
+        for (ReactionTypeCount row : rows) {
+            counts.merge(row.getId().getReactionType(), row.getReactionCount(), Long::sum);
+        }
+        counts.values().removeIf(count -> count <= 0);
+        for (long count : counts.values()) {
+            total += count;
+        }
+        return ReactionSummaryDTO.builder()
+                .targetType(targetType)
+                .targetId(targetId)
+                .total(total)
+                .counts(counts)
+                .build();
+    }
+
+    private void add(TargetType targetType, Long targetId, ReactionType reactionType, int delta) {
+        apply(targetType, targetId, reactionType, selectShard(targetType, targetId), delta);
+    }
+
+    private int selectShard(TargetType targetType, Long targetId) {
+        return hotTargetDetector.recordWrite(targetType, targetId)
+                ? ThreadLocalRandom.current().nextInt(shardCount)
+                : 0;
+    }
+
+    private void apply(TargetType targetType, Long targetId, ReactionType reactionType, int shard, int delta) {
+        Object[] increment = {delta, targetType.name(), targetId, reactionType.name(), shard};
+        if (jdbcTemplate.update(INCREMENT, increment) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT, targetType.name(), targetId, reactionType.name(), shard, delta);
+        } catch (DuplicateKeyException e) {
+            // Another transaction created the row first; its insert is committed or holds the key lock.
+            jdbcTemplate.update(INCREMENT, increment);
+        }
+    }
+}
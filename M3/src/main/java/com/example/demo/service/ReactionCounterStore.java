@@ -0,0 +1,218 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ReactionCounter;
+import com.example.demo.entity.ReactionCounterId;
+import com.example.demo.entity.ReactionOutboxEvent;
+import com.example.demo.entity.TargetType;
+import com.example.demo.repository.ReactionCounterRepository;
+import com.example.demo.repository.ReactionOutboxRepository;
+import com.example.demo.repository.ReactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reaction totals per target, kept in memory in {@link LongAdder} cells so concurrent toggles on
+ * the same target do not contend on one field and reads need no query. The counters are built
+ * from the reactions table before the application serves requests.
+ * <p>
+ * A delta is applied as soon as the change is made and reverted if its transaction rolls back,
+ * so by the time a change is committed (and its outbox event can be relayed) the counter
+ * already includes it. Until then, though, a relay of another event for the same target may have
+ * pushed the uncommitted delta to M2, so a rollback also writes a fresh outbox row for the target
+ * in its own transaction; targets whose row could not be written are retried on the next persist.
+ * Changed counters are written to {@code reaction_counters} periodically and on shutdown.
+ */
+@Component
+public class ReactionCounterStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactionCounterStore.class);
+
+    private record Key(TargetType type, Long id) {
+    }
+
+    private final ReactionRepository reactionRepository;
+    private final ReactionCounterRepository reactionCounterRepository;
+    private final ReactionOutboxRepository reactionOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate repushTransactionTemplate;
+    private final int persistBatchSize;
+
+    private final Map<Key, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Set<Key> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<Key> pendingRepush = ConcurrentHashMap.newKeySet();
+
+    public ReactionCounterStore(ReactionRepository reactionRepository,
+                                ReactionCounterRepository reactionCounterRepository,
+                                ReactionOutboxRepository reactionOutboxRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${m3.reaction-counters.persist-batch-size:500}") int persistBatchSize) {
+        this.reactionRepository = reactionRepository;
+        this.reactionCounterRepository = reactionCounterRepository;
+        this.reactionOutboxRepository = reactionOutboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Runs from afterCompletion, where the finished transaction's resources may still be bound.
+        this.repushTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.repushTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.persistBatchSize = persistBatchSize;
+    }
+
+    @PostConstruct
+    void warmUp() {
+        long started = System.currentTimeMillis();
+        for (Object[] row : reactionRepository.countAllGroupedByTarget()) {
+            LongAdder adder = new LongAdder();
+            adder.add((Long) row[2]);
+            counters.put(new Key((TargetType) row[0], (Long) row[1]), adder);
+        }
+        log.info("Loaded reaction counters for {} targets in {} ms", counters.size(), System.currentTimeMillis() - started);
+    }
+
+    public long get(TargetType targetType, Long targetId) {
+        LongAdder adder = counters.get(new Key(targetType, targetId));
+        return adder == null ? 0L : adder.sum();
+    }
+
+    public void increment(TargetType targetType, Long targetId) {
+        add(new Key(targetType, targetId), 1);
+    }
+
+    public void decrement(TargetType targetType, Long targetId) {
+        add(new Key(targetType, targetId), -1);
+    }
+
+    /**
+     * Zeroes the counter of a target whose reactions were all deleted in the current transaction.
+     */
+    public void reset(TargetType targetType, Long targetId) {
+        Key key = new Key(targetType, targetId);
+        LongAdder adder = counters.get(key);
+        if (adder == null) {
+            return;
+        }
+        long removed = adder.sumThenReset();
+        dirty.add(key);
+        onRollback(key, () -> apply(key, removed));
+    }
+
+    @Scheduled(fixedDelayString = "${m3.reaction-counters.persist-interval-ms:30000}",
+            initialDelayString = "${m3.reaction-counters.persist-interval-ms:30000}")
+    public void persist() {
+        retryPendingRepush();
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Key> changed = new ArrayList<>(dirty.size());
+        for (Key key : dirty) {
+            if (dirty.remove(key)) {
+                changed.add(key);
+            }
+        }
+        for (int from = 0; from < changed.size(); from += persistBatchSize) {
+            List<Key> chunk = changed.subList(from, Math.min(from + persistBatchSize, changed.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> persistChunk(chunk));
+            } catch (RuntimeException e) {
+                log.error("Could not persist {} reaction counters, retrying later: {}", chunk.size(), e.getMessage());
+                dirty.addAll(chunk);
+            }
+        }
+        log.debug("Persisted {} reaction counters", changed.size());
+    }
+
+    @PreDestroy
+    void persistOnShutdown() {
+        persist();
+    }
+
+    private void persistChunk(List<Key> chunk) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ReactionCounterId> ids = chunk.stream()
+                .map(key -> new ReactionCounterId(key.type(), key.id()))
+                .toList();
+        Map<ReactionCounterId, ReactionCounter> existing = reactionCounterRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ReactionCounter::getId, Function.identity()));
+        List<ReactionCounter> toSave = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ReactionCounterId id = ids.get(i);
+            long count = get(chunk.get(i).type(), chunk.get(i).id());
+            ReactionCounter counter = existing.get(id);
+            if (counter == null) {
+                counter = new ReactionCounter(id, count, now);
+            } else {
+                counter.setReactionCount(count);
+                counter.setUpdatedAt(now);
+            }
+            toSave.add(counter);
+        }
+        reactionCounterRepository.saveAll(toSave);
+    }
+
+    private void add(Key key, long delta) {
+        apply(key, delta);
+        onRollback(key, () -> apply(key, -delta));
+    }
+
+    private void apply(Key key, long delta) {
+        counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        dirty.add(key);
+    }
+
+    private void onRollback(Key key, Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    compensation.run();
+                    repush(key);
+                }
+            }
+        });
+    }
+
+    private void repush(Key key) {
+        try {
+            repushTransactionTemplate.executeWithoutResult(status -> reactionOutboxRepository.save(
+                    ReactionOutboxEvent.builder()
+                            .targetType(key.type())
+                            .targetId(key.id())
+                            .build()));
+            pendingRepush.remove(key);
+        } catch (RuntimeException e) {
+            log.warn("Could not queue reaction count re-push for {} {}, retrying later: {}",
+                    key.type(), key.id(), e.getMessage());
+            pendingRepush.add(key);
+        }
+    }
+
+    private void retryPendingRepush() {
+        if (pendingRepush.isEmpty()) {
+            return;
+        }
+        List<Key> keys = new ArrayList<>(pendingRepush);
+        pendingRepush.removeAll(keys);
+        keys.forEach(this::repush);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.metricsdto.ReactionOutboxStatsDTO;
+import com.example.demo.dto.reaction.ReactionCountBatchEntryDTO;
+import com.example.demo.entity.ReactionOutboxEvent;
+import com.example.demo.entity.TargetType;
+import com.example.demo.repository.ReactionOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers {@link ReactionOutboxEvent}s to M2. Each poll takes the oldest due events, collapses
+ * them per target, takes the current counts from {@link ReactionCounterStore} and sends them
+ * as one batch. Delivered events are deleted; on failure the events stay and are retried with
+ * exponential backoff, so reaction writes never wait on M2 and no change is lost while M2 is down.
+ */
+@Component
+public class ReactionOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactionOutboxRelay.class);
+
+    private record Target(TargetType type, Long id) {
+    }
+
+    private final ReactionOutboxRepository outboxRepository;
+    private final ReactionCounterStore reactionCounterStore;
+    private final M2ReactionCountClient m2ReactionCountClient;
+    private final int batchSize;
+    private final long backoffInitialMs;
+    private final long backoffMaxMs;
+
+    private final AtomicLong eventsDelivered = new AtomicLong();
+    private final AtomicLong targetsPushed = new AtomicLong();
+    private final AtomicLong batchesSent = new AtomicLong();
+    private final AtomicLong batchesFailed = new AtomicLong();
+    private final AtomicLong lastDeliveryLagMs = new AtomicLong();
+
+    public ReactionOutboxRelay(ReactionOutboxRepository outboxRepository,
+                               ReactionCounterStore reactionCounterStore,
+                               M2ReactionCountClient m2ReactionCountClient,
+                               @Value("${m3.reaction-outbox.batch-size:500}") int batchSize,
+                               @Value("${m3.reaction-outbox.backoff-initial-ms:1000}") long backoffInitialMs,
+                               @Value("${m3.reaction-outbox.backoff-max-ms:60000}") long backoffMaxMs) {
+        this.outboxRepository = outboxRepository;
+        this.reactionCounterStore = reactionCounterStore;
+        this.m2ReactionCountClient = m2ReactionCountClient;
+        this.batchSize = batchSize;
+        this.backoffInitialMs = backoffInitialMs;
+        this.backoffMaxMs = backoffMaxMs;
+    }
+
+    @Scheduled(fixedDelayString = "${m3.reaction-outbox.poll-ms:500}")
+    public void relay() {
+        List<ReactionOutboxEvent> events;
+        // Keep draining while full batches come back, so a backlog clears without waiting a poll per batch.
+        do {
+            events = outboxRepository.findByNextAttemptAtLessThanEqualOrderByIdAsc(
+                    LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (events.isEmpty() || !deliver(events)) {
+                return;
+            }
+        } while (events.size() == batchSize);
+    }
+
+    public ReactionOutboxStatsDTO getStats() {
+        long pending = outboxRepository.count();
+        long oldestAgeMs = outboxRepository.findFirstByOrderByIdAsc()
+                .map(event -> Duration.between(event.getCreatedAt(), LocalDateTime.now()).toMillis())
+                .orElse(0L);
+        long delivered = eventsDelivered.get();
+        long pushed = targetsPushed.get();
+        return new ReactionOutboxStatsDTO(pending, oldestAgeMs, lastDeliveryLagMs.get(), delivered,
+                batchesSent.get(), batchesFailed.get(), pushed == 0 ? 0.0 : (double) delivered / pushed);
+    }
+
+    private boolean deliver(List<ReactionOutboxEvent> events) {
+        Set<Target> targets = new LinkedHashSet<>();
+        List<Long> eventIds = new ArrayList<>(events.size());
+        int maxAttempts = 0;
+        for (ReactionOutboxEvent event : events) {
+            targets.add(new Target(event.getTargetType(), event.getTargetId()));
+            eventIds.add(event.getId());
+            maxAttempts = Math.max(maxAttempts, event.getAttempts());
+        }
+
+        List<ReactionCountBatchEntryDTO> entries = readCounts(targets);
+        if (!m2ReactionCountClient.pushReactionCounts(entries)) {
+            batchesFailed.incrementAndGet();
+            long delayMs = backoffDelayMs(maxAttempts);
+            outboxRepository.scheduleRetry(eventIds, LocalDateTime.now().plus(Duration.ofMillis(delayMs)));
+            log.warn("Reaction outbox delivery of {} events failed, retrying in {} ms", events.size(), delayMs);
+            return false;
+        }
+
+        outboxRepository.deleteByIds(eventIds);
+        batchesSent.incrementAndGet();
+        eventsDelivered.addAndGet(events.size());
+        targetsPushed.addAndGet(entries.size());
+        lastDeliveryLagMs.set(Duration.between(events.get(0).getCreatedAt(), LocalDateTime.now()).toMillis());
+        log.debug("Delivered {} reaction outbox events as {} counts", events.size(), entries.size());
+        return true;
+    }
+
+    private List<ReactionCountBatchEntryDTO> readCounts(Set<Target> targets) {
+        List<ReactionCountBatchEntryDTO> entries = new ArrayList<>(targets.size());
+        for (Target target : targets) {
+            int count = (int) reactionCounterStore.get(target.type(), target.id());
+            entries.add(ReactionCountBatchEntryDTO.absolute(target.type(), target.id(), count));
+        }
+        return entries;
+    }
+
+    private long backoffDelayMs(int attempts) {
+        long delay = backoffInitialMs << Math.min(attempts, 20);
+        return Math.min(delay, backoffMaxMs);
+    }
+}
@@ -1,26 +1,31 @@
 package com.example.demo.service;
 
-import com.example.demo.dto.reaction.ReactionCountUpdateDTO;
 import com.example.demo.dto.reaction.ReactionInputDTO;
+import com.example.demo.dto.reaction.ReactionSummaryDTO;
+import com.example.demo.dto.reaction.ReactionTargetDTO;
 import com.example.demo.dto.reaction.ReactionViewDTO;
 import com.example.demo.entity.Reaction;
+import com.example.demo.entity.ReactionOutboxEvent;
+import com.example.demo.entity.ReactionType;
 import com.example.demo.entity.TargetType;
 import com.example.demo.errorhandler.ReactionException;
+import com.example.demo.repository.ReactionOutboxRepository;
 import com.example.demo.repository.ReactionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,22 +34,37 @@ public class ReactionService {
     private static final Logger log = LoggerFactory.getLogger(ReactionService.class);
 
     private final ReactionRepository reactionRepository;
-    private final RestTemplate restTemplate;
-    private final String m2ServiceUrl;
+    private final ReactionOutboxRepository reactionOutboxRepository;
+    private final ReactionCounterStore reactionCounterStore;
+    private final ReactionBreakdownService reactionBreakdownService;
+    private final NativeReactionToggle nativeReactionToggle;
+    private final boolean nativeToggleEnabled;
+    private final int maxLookupTargets;
 
     public ReactionService(ReactionRepository reactionRepository,
-                           RestTemplate restTemplate,
-                           @Value("${m2.service.url}") String m2ServiceUrl) {
+                           ReactionOutboxRepository reactionOutboxRepository,
+                           ReactionCounterStore reactionCounterStore,
+                           ReactionBreakdownService reactionBreakdownService,
+                           NativeReactionToggle nativeReactionToggle,
+                           @Value("${m3.reactions.native-toggle.enabled:false}") boolean nativeToggleEnabled,
+                           @Value("${m3.reactions.mine.max-targets:500}") int maxLookupTargets) {
         this.reactionRepository = reactionRepository;
-        this.restTemplate = restTemplate;
-        this.m2ServiceUrl = m2ServiceUrl;
+        this.reactionOutboxRepository = reactionOutboxRepository;
+        this.reactionCounterStore = reactionCounterStore;
+        this.reactionBreakdownService = reactionBreakdownService;
+        this.nativeReactionToggle = nativeReactionToggle;
+        this.nativeToggleEnabled = nativeToggleEnabled;
+        this.maxLookupTargets = maxLookupTargets;
     }
 
-    @Transactional
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public ReactionViewDTO addOrUpdateReaction(Long userId, ReactionInputDTO inputDTO) throws ReactionException {
         if (userId == null) {
             throw new ReactionException("User ID cannot be null.");
         }
+        if (nativeToggleEnabled) {
+            return toggleNative(userId, inputDTO);
+        }
 
         Optional<Reaction> existingReactionOpt = reactionRepository.findByUserIdAndTargetIdAndTargetType(
                 userId, inputDTO.getTargetId(), inputDTO.getTargetType());
@@ -57,6 +77,8 @@ public class ReactionService {
             if (reaction.getReactionType() == inputDTO.getReactionType()) {
                 toDelete = true;
             } else {
+                onReactionTypeChanged(reaction.getTargetType(), reaction.getTargetId(),
+                        reaction.getReactionType(), inputDTO.getReactionType());
                 reaction.setReactionType(inputDTO.getReactionType());
                 reaction.setUpdatedAt(LocalDateTime.now());
             }
@@ -71,17 +93,32 @@ public class ReactionService {
 
         if (toDelete) {
             reactionRepository.delete(reaction);
-            long newCountAfterDelete = reactionRepository.countByTargetIdAndTargetType(inputDTO.getTargetId(), inputDTO.getTargetType());
-            updateReactionCountInM2(inputDTO.getTargetId(), inputDTO.getTargetType(), (int) newCountAfterDelete);
+            onReactionRemoved(reaction.getTargetType(), reaction.getTargetId(), reaction.getReactionType());
             return null;
         } else {
             Reaction savedReaction = reactionRepository.save(reaction);
-            long currentCount = reactionRepository.countByTargetIdAndTargetType(inputDTO.getTargetId(), inputDTO.getTargetType());
-            updateReactionCountInM2(inputDTO.getTargetId(), inputDTO.getTargetType(), (int) currentCount);
+            if (existingReactionOpt.isEmpty()) {
+                onReactionAdded(inputDTO.getTargetType(), inputDTO.getTargetId(), inputDTO.getReactionType());
+            }
             return convertToViewDTO(savedReaction);
         }
     }
 
+    private ReactionViewDTO toggleNative(Long userId, ReactionInputDTO inputDTO) {
+        TargetType targetType = inputDTO.getTargetType();
+        Long targetId = inputDTO.getTargetId();
+        NativeReactionToggle.Result result = nativeReactionToggle.toggle(
+                userId, targetType, targetId, inputDTO.getReactionType());
+        switch (result.outcome()) {
+            case CREATED -> onReactionAdded(targetType, targetId, inputDTO.getReactionType());
+            case REMOVED -> onReactionRemoved(targetType, targetId, result.previousType());
+            case CHANGED -> onReactionTypeChanged(targetType, targetId, result.previousType(), inputDTO.getReactionType());
+            case UNCHANGED -> log.debug("Reaction of user {} on {} {} was already in the requested state",
+                    userId, targetType, targetId);
+        }
+        return result.reaction() == null ? null : convertToViewDTO(result.reaction());
+    }
+
     @Transactional
     public void removeReaction(Long userId, Long targetId, TargetType targetType) throws ReactionException {
         if (userId == null) {
@@ -91,15 +128,17 @@ public class ReactionService {
         if (reactionOpt.isEmpty()) {
             throw new ReactionException("Reaction not found to delete.");
         }
-        reactionRepository.delete(reactionOpt.get());
-        long currentCount = reactionRepository.countByTargetIdAndTargetType(targetId, targetType);
-        updateReactionCountInM2(targetId, targetType, (int) currentCount);
+        Reaction reaction = reactionOpt.get();
+        reactionRepository.delete(reaction);
+        onReactionRemoved(targetType, targetId, reaction.getReactionType());
     }
 
     @Transactional
     public void deleteAllReactionsForTarget(Long targetId, TargetType targetType) {
         log.info("Deleting all reactions for targetId: {} and targetType: {}", targetId, targetType);
         reactionRepository.deleteAllByTargetIdAndTargetType(targetId, targetType);
+        reactionBreakdownService.deleteAllForTarget(targetType, targetId);
+        reactionCounterStore.reset(targetType, targetId);
         log.info("All reactions for targetId: {} and targetType: {} deleted.", targetId, targetType);
     }
 
@@ -111,32 +150,70 @@ public class ReactionService {
                 .collect(Collectors.toList());
     }
 
-    public long getReactionCountForTarget(Long targetId, TargetType targetType) {
-        return reactionRepository.countByTargetIdAndTargetType(targetId, targetType);
+    public ReactionSummaryDTO getReactionSummaryForTarget(Long targetId, TargetType targetType) {
+        return reactionBreakdownService.getSummary(targetType, targetId);
     }
 
-    private void updateReactionCountInM2(Long targetId, TargetType targetType, int count) {
-        String url;
-        if (targetType == TargetType.POST) {
-            url = m2ServiceUrl + "/api/m2/posts/" + targetId + "/update-reaction-count";
-        } else if (targetType == TargetType.COMMENT) {
-            url = m2ServiceUrl + "/api/m2/comments/" + targetId + "/update-reaction-count";
-        } else {
-            log.error("Unsupported target type for reaction count update: {}", targetType);
-            return;
+    /**
+     * The user's own reactions among the given targets; targets the user has not reacted to are
+     * left out. One query per target type, served by the (userId, targetType, targetId) index.
+     */
+    public List<ReactionViewDTO> getUserReactionsForTargets(Long userId, List<ReactionTargetDTO> targets) throws ReactionException {
+        if (userId == null) {
+            throw new ReactionException("User ID cannot be null.");
+        }
+        if (targets == null || targets.isEmpty()) {
+            return List.of();
+        }
+        if (targets.size() > maxLookupTargets) {
+            throw new ReactionException("At most " + maxLookupTargets + " targets can be looked up per request.");
+        }
+        Map<TargetType, Set<Long>> idsByType = new EnumMap<>(TargetType.class);
+        for (ReactionTargetDTO target : targets) {
+            if (target == null || target.getTargetType() == null || target.getTargetId() == null) {
+                throw new ReactionException("Each target needs a targetType and a targetId.");
+            }
+            idsByType.computeIfAbsent(target.getTargetType(), type -> new LinkedHashSet<>()).add(target.getTargetId());
         }
+        List<ReactionViewDTO> reactions = new ArrayList<>();
+        idsByType.forEach((type, ids) -> reactionRepository.findByUserIdAndTargetTypeAndTargetIdIn(userId, type, ids)
+                .forEach(reaction -> reactions.add(convertToViewDTO(reaction))));
+        return reactions;
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        ReactionCountUpdateDTO countUpdateDTO = new ReactionCountUpdateDTO(count);
-        HttpEntity<ReactionCountUpdateDTO> entity = new HttpEntity<>(countUpdateDTO, headers);
+    public List<ReactionSummaryDTO> getReactionSummaries(List<ReactionTargetDTO> targets) throws ReactionException {
+        return reactionBreakdownService.getSummaries(targets);
+    }
 
-        try {
-            restTemplate.exchange(url, HttpMethod.PUT, entity, Void.class);
-            log.info("Successfully updated reaction count in M2 for {} {} to {}", targetType, targetId, count);
-        } catch (Exception e) {
-            log.error("Failed to update reaction count in M2 for {} {}: {}", targetType, targetId, e.getMessage());
-        }
+    public long getReactionCountForTarget(Long targetId, TargetType targetType) {
+        return reactionCounterStore.get(targetType, targetId);
+    }
+
+    private void onReactionAdded(TargetType targetType, Long targetId, ReactionType reactionType) {
+        reactionBreakdownService.increment(targetType, targetId, reactionType);
+        reactionCounterStore.increment(targetType, targetId);
+        recordCountChange(targetType, targetId);
+    }
+
+    private void onReactionRemoved(TargetType targetType, Long targetId, ReactionType reactionType) {
+        reactionBreakdownService.decrement(targetType, targetId, reactionType);
+        reactionCounterStore.decrement(targetType, targetId);
+        recordCountChange(targetType, targetId);
+    }
+
+    private void onReactionTypeChanged(TargetType targetType, Long targetId, ReactionType from, ReactionType to) {
+        reactionBreakdownService.changeType(targetType, targetId, from, to);
+        recordCountChange(targetType, targetId);
+    }
+
+    /**
+     * Writes the outbox row in the caller's transaction; {@link ReactionOutboxRelay} delivers it to M2.
+     */
+    private void recordCountChange(TargetType targetType, Long targetId) {
+        reactionOutboxRepository.save(ReactionOutboxEvent.builder()
+                .targetType(targetType)
+                .targetId(targetId)
+                .build());
     }
 
     private ReactionViewDTO convertToViewDTO(Reaction reaction) {
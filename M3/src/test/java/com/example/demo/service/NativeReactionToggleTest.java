@@ -0,0 +1,138 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.reaction.ReactionInputDTO;
+import com.example.demo.dto.reaction.ReactionSummaryDTO;
+import com.example.demo.dto.reaction.ReactionViewDTO;
+import com.example.demo.entity.ReactionType;
+import com.example.demo.entity.TargetType;
+import com.example.demo.errorhandler.ReactionException;
+import com.example.demo.repository.ReactionOutboxRepository;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The MySQL toggle path of {@link ReactionService}, run against H2 in MySQL mode (which accepts
+ * {@code INSERT IGNORE}). Not transactional: the concurrent case needs a second transaction to
+ * commit while the toggle waits on its row.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:native-toggle;MODE=MySQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000",
+        "m3.reactions.native-toggle.enabled=true"
+})
+@ActiveProfiles("db-mem")
+public class NativeReactionToggleTest {
+
+    private static final long USER_ID = 7_000_001L;
+    private static final long TOGGLED_TARGET = 7_000_101L;
+    private static final long RACED_TARGET = 7_000_102L;
+
+    @Resource
+    ReactionService reactionService;
+
+    @Resource
+    ReactionCounterStore reactionCounterStore;
+
+    @Resource
+    ReactionBreakdownService reactionBreakdownService;
+
+    @Resource
+    ReactionOutboxRepository reactionOutboxRepository;
+
+    @Resource
+    JdbcTemplate jdbcTemplate;
+
+    @Resource
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void cleanUp() {
+        for (long targetId : new long[]{TOGGLED_TARGET, RACED_TARGET}) {
+            jdbcTemplate.update("DELETE FROM reactions WHERE target_id = ?", targetId);
+            jdbcTemplate.update("DELETE FROM reaction_type_count_shards WHERE target_id = ?", targetId);
+            jdbcTemplate.update("DELETE FROM reaction_outbox WHERE target_id = ?", targetId);
+        }
+    }
+
+    @Test
+    public void test_toggle_createsChangesAndRemovesReaction() throws ReactionException {
+        ReactionViewDTO created = reactionService.addOrUpdateReaction(USER_ID, input(TOGGLED_TARGET, ReactionType.LIKE));
+        assertThat(created.getId()).isNotNull();
+        assertThat(created.getReactionType()).isEqualTo(ReactionType.LIKE);
+        assertThat(reactionCounterStore.get(TargetType.POST, TOGGLED_TARGET)).isEqualTo(1);
+        assertThat(breakdown(TOGGLED_TARGET)).containsExactlyEntriesOf(Map.of(ReactionType.LIKE, 1L));
+        assertThat(outboxRows(TOGGLED_TARGET)).isEqualTo(1);
+
+        ReactionViewDTO changed = reactionService.addOrUpdateReaction(USER_ID, input(TOGGLED_TARGET, ReactionType.LOVE));
+        assertThat(changed.getId()).isEqualTo(created.getId());
+        assertThat(changed.getReactionType()).isEqualTo(ReactionType.LOVE);
+        assertThat(reactionCounterStore.get(TargetType.POST, TOGGLED_TARGET)).isEqualTo(1);
+        assertThat(breakdown(TOGGLED_TARGET)).containsExactlyEntriesOf(Map.of(ReactionType.LOVE, 1L));
+        assertThat(outboxRows(TOGGLED_TARGET)).isEqualTo(2);
+
+        ReactionViewDTO removed = reactionService.addOrUpdateReaction(USER_ID, input(TOGGLED_TARGET, ReactionType.LOVE));
+        assertThat(removed).isNull();
+        assertThat(reactionCounterStore.get(TargetType.POST, TOGGLED_TARGET)).isZero();
+        assertThat(breakdown(TOGGLED_TARGET)).isEmpty();
+        assertThat(outboxRows(TOGGLED_TARGET)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reactions WHERE target_id = ?", Long.class, TOGGLED_TARGET)).isZero();
+    }
+
+    @Test
+    public void test_toggle_isUnchangedWhenConcurrentInsertOfSameTypeWins() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Holds an uncommitted LIKE: the toggle's delete misses it and its INSERT IGNORE waits on the key.
+            Future<?> concurrentInsert = executor.submit(() -> new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> {
+                        jdbcTemplate.update("INSERT INTO reactions (user_id, target_id, target_type, reaction_type, created_at, updated_at) "
+                                + "VALUES (?, ?, 'POST', 'LIKE', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", USER_ID, RACED_TARGET);
+                        inserted.countDown();
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(500));
+                    }));
+            assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+
+            ReactionViewDTO result = reactionService.addOrUpdateReaction(USER_ID, input(RACED_TARGET, ReactionType.LIKE));
+            concurrentInsert.get(10, TimeUnit.SECONDS);
+
+            assertThat(result.getReactionType()).isEqualTo(ReactionType.LIKE);
+            assertThat(reactionCounterStore.get(TargetType.POST, RACED_TARGET)).isZero();
+            assertThat(breakdown(RACED_TARGET)).isEmpty();
+            assertThat(outboxRows(RACED_TARGET)).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ReactionInputDTO input(long targetId, ReactionType reactionType) {
+        return new ReactionInputDTO(targetId, TargetType.POST, reactionType);
+    }
+
+    private Map<ReactionType, Long> breakdown(long targetId) {
+        ReactionSummaryDTO summary = reactionBreakdownService.getSummary(TargetType.POST, targetId);
+        return summary.getCounts();
+    }
+
+    private long outboxRows(long targetId) {
+        return reactionOutboxRepository.findAll().stream()
+                .filter(event -> event.getTargetId() == targetId)
+                .count();
+    }
+}
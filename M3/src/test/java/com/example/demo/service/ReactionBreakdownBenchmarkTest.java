@@ -0,0 +1,115 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ReactionType;
+import com.example.demo.entity.TargetType;
+import com.example.demo.repository.ReactionTypeCountRepository;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many threads reacting to one target, with single-row and sharded breakdown counts. Each
+ * transaction holds its row lock for a short while after the increment, standing in for the
+ * rest of a toggle (reaction row, outbox row). Not transactional: every write must commit.
+ */
+@SpringBootTest
+@ActiveProfiles("db-mem")
+public class ReactionBreakdownBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactionBreakdownBenchmarkTest.class);
+
+    private static final int THREADS = 8;
+    private static final int WRITES_PER_THREAD = 200;
+    private static final long WORK_IN_TRANSACTION_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+    private static final long SINGLE_ROW_TARGET = 9_000_001L;
+    private static final long SHARDED_TARGET = 9_000_002L;
+
+    @Resource
+    JdbcTemplate jdbcTemplate;
+
+    @Resource
+    ReactionTypeCountRepository reactionTypeCountRepository;
+
+    @Resource
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            reactionTypeCountRepository.deleteAllForTarget(TargetType.POST, SINGLE_ROW_TARGET);
+            reactionTypeCountRepository.deleteAllForTarget(TargetType.POST, SHARDED_TARGET);
+        });
+    }
+
+    @Test
+    public void test_hotTarget_shardedCountsStayExactAndReportThroughput() throws Exception {
+        ReactionBreakdownService singleRow = breakdownService(Integer.MAX_VALUE);
+        ReactionBreakdownService sharded = breakdownService(1);
+
+        double singleRowRate = writesPerSecond(singleRow, SINGLE_ROW_TARGET);
+        double shardedRate = writesPerSecond(sharded, SHARDED_TARGET);
+        log.info("Hot target, {} threads x {} writes: single row {} writes/s, sharded {} writes/s ({}x)",
+                THREADS, WRITES_PER_THREAD, Math.round(singleRowRate), Math.round(shardedRate),
+                String.format("%.1f", shardedRate / singleRowRate));
+
+        long expected = (long) THREADS * WRITES_PER_THREAD;
+        assertThat(singleRow.getSummary(TargetType.POST, SINGLE_ROW_TARGET).getTotal()).isEqualTo(expected);
+        assertThat(sharded.getSummary(TargetType.POST, SHARDED_TARGET).getTotal()).isEqualTo(expected);
+        assertThat(sharded.getSummary(TargetType.POST, SHARDED_TARGET).getCounts().get(ReactionType.LIKE)).isEqualTo(expected);
+        assertThat(reactionTypeCountRepository.findByIdTargetTypeAndIdTargetId(TargetType.POST, SHARDED_TARGET))
+                .hasSizeGreaterThan(1);
+    }
+
+    private ReactionBreakdownService breakdownService(int hotThresholdPerSecond) {
+        return new ReactionBreakdownService(jdbcTemplate, reactionTypeCountRepository,
+                new HotTargetDetector(hotThresholdPerSecond, 60_000), 500, 16);
+    }
+
+    private double writesPerSecond(ReactionBreakdownService service, long targetId) throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < WRITES_PER_THREAD; i++) {
+                        transactionTemplate.executeWithoutResult(status -> {
+                            service.increment(TargetType.POST, targetId, ReactionType.LIKE);
+                            LockSupport.parkNanos(WORK_IN_TRANSACTION_NANOS);
+                        });
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            return THREADS * WRITES_PER_THREAD / seconds;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}